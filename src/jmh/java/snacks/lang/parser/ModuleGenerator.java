@@ -0,0 +1,52 @@
+package snacks.lang.parser;
+
+public final class ModuleGenerator {
+
+    public static String generate(int declarations, int depth) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < declarations; i++) {
+            builder.append("data Chain").append(i).append(" a = End").append(i)
+                .append(" | Link").append(i).append(" a (Chain").append(i).append(" a)\n");
+            builder.append("length").append(i).append(" :: Chain").append(i).append(" a -> Integer\n");
+            builder.append("compute").append(i).append(" :: Integer -> Integer -> Integer\n");
+        }
+        for (int i = 0; i < declarations; i++) {
+            builder.append("length").append(i).append(" = ?(End").append(i).append(") -> 0\n");
+            builder.append("length").append(i).append(" = ?(Link").append(i)
+                .append(" _ rest) -> 1 + length").append(i).append(" rest\n");
+            builder.append("compute").append(i).append(" = (x y) ->\n");
+            appendCondition(builder, depth, "    ");
+            builder.append("chain").append(i).append(" = Link").append(i).append(" \"").append(i)
+                .append("\" (Link").append(i).append(" \"").append(i + 1).append("\" End").append(i).append(")\n");
+        }
+        return builder.toString();
+    }
+
+    private static void appendArithmetic(StringBuilder builder, int depth) {
+        if (depth == 0) {
+            builder.append("x");
+        } else {
+            builder.append("(y * ");
+            appendArithmetic(builder, depth - 1);
+            builder.append(" + ").append(depth).append(")");
+        }
+    }
+
+    private static void appendCondition(StringBuilder builder, int depth, String indent) {
+        builder.append(indent).append("if x > ").append(depth).append(":\n");
+        builder.append(indent).append("    ");
+        appendArithmetic(builder, depth);
+        builder.append("\n");
+        builder.append(indent).append("else\n");
+        if (depth > 1) {
+            appendCondition(builder, depth - 1, indent + "    ");
+        } else {
+            builder.append(indent).append("    y - x\n");
+        }
+        builder.append(indent).append("end\n");
+    }
+
+    private ModuleGenerator() {
+        // intentionally empty
+    }
+}
@@ -0,0 +1,36 @@
+package snacks.lang.parser;
+
+import java.util.concurrent.TimeUnit;
+import beaver.Symbol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParserBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int declarations;
+
+    @Param({ "1", "4", "8" })
+    public int depth;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = ModuleGenerator.generate(declarations, depth);
+    }
+
+    @Benchmark
+    public Symbol parse() {
+        return new Parser().parse(new Scanner("benchmark", source));
+    }
+}
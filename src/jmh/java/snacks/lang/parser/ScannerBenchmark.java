@@ -0,0 +1,42 @@
+package snacks.lang.parser;
+
+import static snacks.lang.parser.Terminals.EOF;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScannerBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int declarations;
+
+    @Param({ "1", "4", "8" })
+    public int depth;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = ModuleGenerator.generate(declarations, depth);
+    }
+
+    @Benchmark
+    public int scanTokens() {
+        Scanner scanner = new Scanner("benchmark", source);
+        int tokens = 0;
+        while (scanner.nextToken().getId() != EOF) {
+            tokens++;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,42 @@
+package snacks.lang.parser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import beaver.Symbol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import snacks.lang.ast.NamedNode;
+import snacks.lang.runtime.SnacksClassLoader;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TranslatorBenchmark {
+
+    @Param({ "10", "50" })
+    public int declarations;
+
+    @Param({ "1", "4" })
+    public int depth;
+
+    private SnacksClassLoader loader;
+    private Symbol tree;
+
+    @Setup
+    public void setUp() {
+        loader = new SnacksClassLoader();
+        tree = new Parser().parse(new Scanner("benchmark", ModuleGenerator.generate(declarations, depth)));
+        translateModule();
+    }
+
+    @Benchmark
+    public List<NamedNode> translateModule() {
+        return new Translator(new SymbolEnvironment(loader), "benchmark").translateModule(tree);
+    }
+}
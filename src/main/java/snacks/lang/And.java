@@ -9,12 +9,9 @@ import static snacks.lang.Types.func;
 @Infix(fixity = LEFT, precedence = 4)
 public class And {
 
-    private static And instance;
+    private static final And instance = new And();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new And();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.var;
 @Snack(name = "classOf", kind = EXPRESSION)
 public class ClassOf {
 
-    private static ClassOf instance;
+    private static final ClassOf instance = new ClassOf();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new ClassOf();
-        }
         return instance;
     }
 
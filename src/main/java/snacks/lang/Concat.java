@@ -8,12 +8,9 @@ import static snacks.lang.Types.var;
 @Snack(name = "concat", kind = EXPRESSION)
 public class Concat {
 
-    private static Concat instance;
+    private static final Concat instance = new Concat();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Concat();
-        }
         return instance;
     }
 
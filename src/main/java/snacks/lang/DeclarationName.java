@@ -55,12 +55,9 @@ public abstract class DeclarationName {
         @Snack(name = "TypeName", kind = EXPRESSION)
         public static final class Constructor {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
@@ -113,12 +110,9 @@ public abstract class DeclarationName {
         @Snack(name = "ExpressionName", kind = EXPRESSION)
         public static final class Constructor {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
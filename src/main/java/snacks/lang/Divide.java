@@ -11,12 +11,9 @@ import static snacks.lang.Types.union;
 @Infix(fixity = LEFT, precedence = 13)
 public class Divide {
 
-    private static Divide instance;
+    private static final Divide instance = new Divide();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Divide();
-        }
         return instance;
     }
 
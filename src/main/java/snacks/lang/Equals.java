@@ -12,12 +12,9 @@ import java.util.Objects;
 @Infix(fixity = LEFT, precedence = 6)
 public class Equals {
 
-    private static Equals instance;
+    private static final Equals instance = new Equals();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Equals();
-        }
         return instance;
     }
 
@@ -2,12 +2,9 @@ package snacks.lang;
 
 public class Errorize {
 
-    private static Errorize instance;
+    private static final Errorize instance = new Errorize();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Errorize();
-        }
         return instance;
     }
 
@@ -12,12 +12,9 @@ import static snacks.lang.Types.union;
 @Infix(fixity = RIGHT, precedence = 14)
 public class Exponent {
 
-    private static Exponent instance;
+    private static final Exponent instance = new Exponent();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Exponent();
-        }
         return instance;
     }
 
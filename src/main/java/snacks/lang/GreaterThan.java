@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 6)
 public class GreaterThan {
 
-    private static GreaterThan instance;
+    private static final GreaterThan instance = new GreaterThan();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new GreaterThan();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 6)
 public class GreaterThanEquals {
 
-    private static GreaterThanEquals instance;
+    private static final GreaterThanEquals instance = new GreaterThanEquals();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new GreaterThanEquals();
-        }
         return instance;
     }
 
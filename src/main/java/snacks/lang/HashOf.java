@@ -8,12 +8,9 @@ import static snacks.lang.Types.var;
 @Snack(name = "hashOf", kind = EXPRESSION)
 public class HashOf {
 
-    private static HashOf instance;
+    private static final HashOf instance = new HashOf();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new HashOf();
-        }
         return instance;
     }
 
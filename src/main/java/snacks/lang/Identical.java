@@ -10,12 +10,9 @@ import static snacks.lang.Types.var;
 @Infix(fixity = LEFT, precedence = 6)
 public class Identical {
 
-    private static Identical instance;
+    private static final Identical instance = new Identical();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Identical();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 6)
 public class LessThan {
 
-    private static LessThan instance;
+    private static final LessThan instance = new LessThan();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new LessThan();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 6)
 public class LessThanEquals {
 
-    private static LessThanEquals instance;
+    private static final LessThanEquals instance = new LessThanEquals();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new LessThanEquals();
-        }
         return instance;
     }
 
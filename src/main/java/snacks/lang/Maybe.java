@@ -61,12 +61,9 @@ public abstract class Maybe {
         @Snack(name = "Just", kind = EXPRESSION)
         public static final class Constructor {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
@@ -86,12 +83,9 @@ public abstract class Maybe {
     @Snack(name = "Nothing", kind = TYPE)
     public static final class Nothing extends Maybe {
 
-        private static Nothing instance;
+        private static final Nothing instance = new Nothing();
 
         public static Nothing value() {
-            if (instance == null) {
-                instance = new Nothing();
-            }
             return instance;
         }
 
@@ -11,12 +11,9 @@ import static snacks.lang.Types.union;
 @Infix(fixity = LEFT, precedence = 12)
 public class Minus {
 
-    private static Minus instance;
+    private static final Minus instance = new Minus();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Minus();
-        }
         return instance;
     }
 
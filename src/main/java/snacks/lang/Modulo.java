@@ -9,12 +9,9 @@ import static snacks.lang.Types.integerType;
 @Infix(fixity = LEFT, precedence = 13)
 public class Modulo {
 
-    private static Modulo instance;
+    private static final Modulo instance = new Modulo();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Modulo();
-        }
         return instance;
     }
 
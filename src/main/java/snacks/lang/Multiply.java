@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 13)
 public class Multiply {
 
-    private static Multiply instance;
+    private static final Multiply instance = new Multiply();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Multiply();
-        }
         return instance;
     }
 
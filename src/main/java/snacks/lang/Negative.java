@@ -10,12 +10,9 @@ import static snacks.lang.Types.union;
 @Prefix(precedence = 15)
 public class Negative {
 
-    private static Negative instance;
+    private static final Negative instance = new Negative();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Negative();
-        }
         return instance;
     }
 
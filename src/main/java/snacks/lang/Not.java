@@ -10,12 +10,9 @@ import static snacks.lang.Types.func;
 @Prefix(precedence = 5)
 public class Not {
 
-    private static Not instance;
+    private static final Not instance = new Not();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Not();
-        }
         return instance;
     }
 
@@ -12,12 +12,9 @@ import java.util.Objects;
 @Infix(fixity = LEFT, precedence = 6)
 public class NotEquals {
 
-    private static NotEquals instance;
+    private static final NotEquals instance = new NotEquals();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new NotEquals();
-        }
         return instance;
     }
 
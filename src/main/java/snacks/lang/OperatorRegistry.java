@@ -1,14 +1,14 @@
 package snacks.lang;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class OperatorRegistry {
 
     private final Map<String, OpEntry> operators;
 
     public OperatorRegistry() {
-        operators = new HashMap<>();
+        operators = new ConcurrentHashMap<>();
     }
 
     public Operator getOperator(String name) {
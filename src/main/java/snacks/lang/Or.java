@@ -10,12 +10,9 @@ import static snacks.lang.Types.union;
 @Infix(fixity = LEFT, precedence = 3, shortCircuit = true)
 public class Or {
 
-    private static Or instance;
+    private static final Or instance = new Or();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Or();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.*;
 @Infix(fixity = LEFT, precedence = 12)
 public class Plus {
 
-    private static Plus instance;
+    private static final Plus instance = new Plus();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Plus();
-        }
         return instance;
     }
 
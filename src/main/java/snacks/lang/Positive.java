@@ -10,12 +10,9 @@ import static snacks.lang.Types.union;
 @Prefix(precedence = 15)
 public class Positive {
 
-    private static Positive instance;
+    private static final Positive instance = new Positive();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Positive();
-        }
         return instance;
     }
 
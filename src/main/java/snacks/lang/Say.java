@@ -9,12 +9,9 @@ import static snacks.lang.Types.voidType;
 @Snack(name = "say", kind = EXPRESSION)
 public class Say {
 
-    private static Say instance;
+    private static final Say instance = new Say();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Say();
-        }
         return instance;
     }
 
@@ -8,12 +8,9 @@ import static snacks.lang.Types.voidType;
 @Snack(name = "assert", kind = EXPRESSION)
 public class SnacksAssert {
 
-    private static SnacksAssert instance;
+    private static final SnacksAssert instance = new SnacksAssert();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new SnacksAssert();
-        }
         return instance;
     }
 
@@ -1,6 +1,9 @@
 package snacks.lang;
 
 import static com.headius.invokebinder.Binder.from;
+import static java.lang.invoke.MethodHandles.guardWithTest;
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.lang.invoke.MethodHandles.lookup;
 import static me.qmx.jitescript.util.CodegenUtils.p;
 import static me.qmx.jitescript.util.CodegenUtils.sig;
 import static org.apache.commons.lang.reflect.MethodUtils.getMatchingAccessibleMethod;
@@ -12,6 +15,8 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.MethodType;
 import java.lang.invoke.MutableCallSite;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Opcodes;
 
@@ -27,46 +32,180 @@ public class SnacksDispatcher {
     public static final Handle BOOTSTRAP_GET = new Handle(
         Opcodes.H_INVOKESTATIC,
         p(SnacksDispatcher.class),
-        "bootstrap",
-        sig(CallSite.class, Lookup.class, String.class, MethodType.class)
+        "bootstrapGet",
+        sig(CallSite.class, Lookup.class, String.class, MethodType.class, String.class)
     );
 
+    private static final int INLINE_CACHE_SIZE = 8;
+
     private static final String apply = "apply";
+    private static final Lookup dispatcher = lookup();
+    private static final MethodHandle checkClass;
+    private static final MethodHandle checkClasses;
+    private static final ClassValue<ConcurrentMap<String, MethodHandle>> getCache = new DispatchCache<>();
+
+    static {
+        try {
+            checkClass = from(boolean.class, Class.class, Object.class)
+                .invokeStatic(dispatcher, SnacksDispatcher.class, "checkClass");
+            checkClasses = from(boolean.class, Class.class, Class.class, Object.class, Object.class)
+                .invokeStatic(dispatcher, SnacksDispatcher.class, "checkClasses");
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
 
     public static CallSite bootstrap(Lookup lookup, String name, MethodType type) throws ReflectiveOperationException {
-        CallSite callSite = new MutableCallSite(type);
-        MethodHandle send = from(type)
-            .insert(0, lookup)
-            .invokeStatic(lookup, SnacksDispatcher.class, name);
-        callSite.setTarget(send);
-        return callSite;
+        return new ApplySite(lookup, type);
+    }
+
+    public static CallSite bootstrapGet(Lookup lookup, String name, MethodType type, String property) throws ReflectiveOperationException {
+        return new GetSite(lookup, type, property);
     }
 
-    public static Object apply(Lookup lookup, Object function, Object argument) throws Throwable {
-        Method method = methodFor(function, argument);
-        return from(method.getReturnType(), function.getClass(), method.getParameterTypes()[0])
-            .invokeVirtual(lookup, apply)
-            .invoke(function, argument);
+    private static Object applyFallback(ApplySite site, Object function, Object argument) throws Throwable {
+        return site.link(function.getClass(), argument.getClass()).invokeExact(function, argument);
     }
 
-    public static Object get(Lookup lookup, Object expression, String property) throws Throwable {
+    private static Object applyMegamorphic(ApplySite site, Object function, Object argument) throws Throwable {
+        return site.megamorphicHandle(function.getClass(), argument.getClass()).invokeExact(function, argument);
+    }
+
+    private static boolean checkClass(Class<?> expressionClass, Object expression) {
+        return expression.getClass() == expressionClass;
+    }
+
+    private static boolean checkClasses(Class<?> functionClass, Class<?> argumentClass, Object function, Object argument) {
+        return function.getClass() == functionClass && argument.getClass() == argumentClass;
+    }
+
+    private static Object getFallback(GetSite site, Object expression) throws Throwable {
+        return site.link(expression.getClass()).invokeExact(expression);
+    }
+
+    private static Object getMegamorphic(GetSite site, Object expression) throws Throwable {
+        ConcurrentMap<String, MethodHandle> handles = getCache.get(expression.getClass());
+        MethodHandle target = handles.get(site.getProperty());
+        if (target == null) {
+            target = site.getHandle(expression.getClass());
+            handles.putIfAbsent(site.getProperty(), target);
+        }
+        return target.invokeExact(expression);
+    }
+
+    private static Method getterFor(Class<?> expressionClass, String property) throws NoSuchMethodException {
         String getter = javaGetter(property);
-        Method method = getMatchingAccessibleMethod(expression.getClass(), javaGetter(property), new Class[0]);
+        Method method = getMatchingAccessibleMethod(expressionClass, getter, new Class[0]);
         if (method == null) {
-            throw new NoSuchMethodException(p(expression.getClass()) + ":" + getter + ":" + sig(Object.class));
+            throw new NoSuchMethodException(p(expressionClass) + ":" + getter + ":" + sig(Object.class));
         } else {
-            return from(method.getReturnType(), expression.getClass())
-                .invokeVirtual(lookup, getter)
-                .invoke(expression);
+            return method;
         }
     }
 
-    private static Method methodFor(Object function, Object argument) throws Throwable {
-        Method method = getMatchingAccessibleMethod(function.getClass(), apply, new Class[] { argument.getClass() });
+    private static Method methodFor(Class<?> functionClass, Class<?> argumentClass) throws NoSuchMethodException {
+        Method method = getMatchingAccessibleMethod(functionClass, apply, new Class[] { argumentClass });
         if (method == null) {
-            throw new NoSuchMethodException(p(function.getClass()) + ":" + apply + ":" + sig(Object.class, argument.getClass()));
+            throw new NoSuchMethodException(p(functionClass) + ":" + apply + ":" + sig(Object.class, argumentClass));
         } else {
             return method;
         }
     }
+
+    private static final class ApplySite extends DispatchSite {
+
+        private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, MethodHandle>> handles;
+
+        public ApplySite(Lookup lookup, MethodType type) throws ReflectiveOperationException {
+            super(lookup, type, "applyFallback", "applyMegamorphic");
+            this.handles = new ConcurrentHashMap<>();
+        }
+
+        public MethodHandle applyHandle(Class<?> functionClass, Class<?> argumentClass) throws ReflectiveOperationException {
+            return unreflect(methodFor(functionClass, argumentClass));
+        }
+
+        public MethodHandle link(Class<?> functionClass, Class<?> argumentClass) throws ReflectiveOperationException {
+            return link(insertArguments(checkClasses, 0, functionClass, argumentClass), applyHandle(functionClass, argumentClass));
+        }
+
+        public MethodHandle megamorphicHandle(Class<?> functionClass, Class<?> argumentClass) throws ReflectiveOperationException {
+            ConcurrentMap<Class<?>, MethodHandle> argumentHandles = handles.get(functionClass);
+            if (argumentHandles == null) {
+                handles.putIfAbsent(functionClass, new ConcurrentHashMap<Class<?>, MethodHandle>());
+                argumentHandles = handles.get(functionClass);
+            }
+            MethodHandle target = argumentHandles.get(argumentClass);
+            if (target == null) {
+                target = applyHandle(functionClass, argumentClass);
+                argumentHandles.putIfAbsent(argumentClass, target);
+            }
+            return target;
+        }
+    }
+
+    private static final class DispatchCache<K> extends ClassValue<ConcurrentMap<K, MethodHandle>> {
+
+        @Override
+        protected ConcurrentMap<K, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    }
+
+    private abstract static class DispatchSite extends MutableCallSite {
+
+        private final Lookup lookup;
+        private final String megamorphic;
+        private int depth;
+
+        public DispatchSite(Lookup lookup, MethodType type, String fallback, String megamorphic) throws ReflectiveOperationException {
+            super(type);
+            this.lookup = lookup;
+            this.megamorphic = megamorphic;
+            setTarget(bind(fallback));
+        }
+
+        protected synchronized MethodHandle link(MethodHandle test, MethodHandle target) throws ReflectiveOperationException {
+            if (depth < INLINE_CACHE_SIZE) {
+                setTarget(guardWithTest(test, target, getTarget()));
+                depth++;
+            } else if (depth == INLINE_CACHE_SIZE) {
+                setTarget(bind(megamorphic));
+                depth++;
+            }
+            return target;
+        }
+
+        protected MethodHandle unreflect(Method method) throws IllegalAccessException {
+            return lookup.unreflect(method).asType(type());
+        }
+
+        private MethodHandle bind(String method) throws ReflectiveOperationException {
+            return from(type())
+                .insert(0, new Class<?>[] { getClass() }, this)
+                .invokeStatic(dispatcher, SnacksDispatcher.class, method);
+        }
+    }
+
+    private static final class GetSite extends DispatchSite {
+
+        private final String property;
+
+        public GetSite(Lookup lookup, MethodType type, String property) throws ReflectiveOperationException {
+            super(lookup, type, "getFallback", "getMegamorphic");
+            this.property = property;
+        }
+
+        public MethodHandle getHandle(Class<?> expressionClass) throws ReflectiveOperationException {
+            return unreflect(getterFor(expressionClass, property));
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public MethodHandle link(Class<?> expressionClass) throws ReflectiveOperationException {
+            return link(insertArguments(checkClass, 0, expressionClass), getHandle(expressionClass));
+        }
+    }
 }
@@ -177,12 +177,9 @@ public abstract class SnacksList<T> implements Iterable<T> {
         @Snack(name = "ListEntry", kind = EXPRESSION)
         public static final class Constructor {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
@@ -239,12 +239,9 @@ public abstract class SnacksMap<K, V> implements Iterable<Tuple2<K, V>> {
         @Snack(name = "MapEntry", kind = EXPRESSION)
         public static final class Constructor {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
@@ -187,12 +187,9 @@ public abstract class SnacksSet<T> implements Iterable<T> {
         @Snack(name = "SetEntry", kind = EXPRESSION, arguments = "snacks.lang.Set#a")
         public static final class Constructor<T> {
 
-            private static Constructor instance;
+            private static final Constructor instance = new Constructor();
 
             public static Object instance() {
-                if (instance == null) {
-                    instance = new Constructor();
-                }
                 return instance;
             }
 
@@ -18,12 +18,9 @@ public class SnacksString {
     @Snack(name = "string", kind = EXPRESSION)
     public static final class Constructor {
 
-        private static Constructor instance;
+        private static final Constructor instance = new Constructor();
 
         public static Object instance() {
-            if (instance == null) {
-                instance = new Constructor();
-            }
             return instance;
         }
 
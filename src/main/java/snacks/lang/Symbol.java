@@ -61,12 +61,9 @@ public class Symbol {
     @Snack(name = "symbol", kind = EXPRESSION)
     public static class Constructor {
 
-        private static Constructor instance;
+        private static final Constructor instance = new Constructor();
 
         public static Object instance() {
-            if (instance == null) {
-                instance = new Constructor();
-            }
             return instance;
         }
 
@@ -14,12 +14,9 @@ import snacks.lang.runtime.SnacksClassLoader;
 @Snack(name = "typeFor", kind = EXPRESSION)
 public class TypeFor {
 
-    private static TypeFor instance;
+    private static final TypeFor instance = new TypeFor();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new TypeFor();
-        }
         return instance;
     }
 
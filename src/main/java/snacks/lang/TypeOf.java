@@ -10,12 +10,9 @@ import snacks.lang.runtime.SnacksClassLoader;
 @Snack(name = "typeOf", kind = EXPRESSION)
 public class TypeOf {
 
-    private static TypeOf instance;
+    private static final TypeOf instance = new TypeOf();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new TypeOf();
-        }
         return instance;
     }
 
@@ -44,12 +44,9 @@ public final class Atom<T> {
     @Snack(name = "Atom", kind = EXPRESSION)
     public static class Constructor {
 
-        private static Constructor instance;
+        private static final Constructor instance = new Constructor();
 
         public static Object instance() {
-            if (instance == null) {
-                instance = new Constructor();
-            }
             return instance;
         }
 
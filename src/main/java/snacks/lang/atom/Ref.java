@@ -12,12 +12,9 @@ import snacks.lang.Type;
 @Snack(name = "ref", kind = EXPRESSION)
 public class Ref {
 
-    private static Ref instance;
+    private static final Ref instance = new Ref();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Ref();
-        }
         return instance;
     }
 
@@ -12,12 +12,9 @@ import snacks.lang.Type;
 @Snack(name = "set!", kind = EXPRESSION)
 public class Set {
 
-    private static Set instance;
+    private static final Set instance = new Set();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Set();
-        }
         return instance;
     }
 
@@ -15,12 +15,9 @@ import snacks.lang.Type;
 @Snack(name = "swap!", kind = EXPRESSION)
 public class Swap {
 
-    private static Swap instance;
+    private static final Swap instance = new Swap();
 
     public static Object instance() {
-        if (instance == null) {
-            instance = new Swap();
-        }
         return instance;
     }
 
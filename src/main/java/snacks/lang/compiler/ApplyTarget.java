@@ -0,0 +1,32 @@
+package snacks.lang.compiler;
+
+import static me.qmx.jitescript.util.CodegenUtils.p;
+
+import me.qmx.jitescript.CodeBlock;
+
+final class ApplyTarget {
+
+    private final String owner;
+    private final String argument;
+    private final String signature;
+
+    public ApplyTarget(String owner, String argument, String signature) {
+        this.owner = owner;
+        this.argument = argument;
+        this.signature = signature;
+    }
+
+    public void checkArgument(CodeBlock block) {
+        if (!p(Object.class).equals(argument)) {
+            block.checkcast(argument);
+        }
+    }
+
+    public void checkFunction(CodeBlock block) {
+        block.checkcast(owner);
+    }
+
+    public void invoke(CodeBlock block) {
+        block.invokevirtual(owner, "apply", signature);
+    }
+}
@@ -0,0 +1,112 @@
+package snacks.lang.compiler;
+
+import static me.qmx.jitescript.util.CodegenUtils.p;
+import static me.qmx.jitescript.util.CodegenUtils.sig;
+
+import me.qmx.jitescript.CodeBlock;
+import snacks.lang.Divide;
+import snacks.lang.Exponent;
+import snacks.lang.Minus;
+import snacks.lang.Modulo;
+import snacks.lang.Multiply;
+import snacks.lang.Plus;
+
+enum Arithmetic {
+
+    ADD(Plus.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            if (operand == int.class) {
+                block.iadd();
+            } else {
+                block.dadd();
+            }
+        }
+    },
+
+    SUBTRACT(Minus.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            if (operand == int.class) {
+                block.isub();
+            } else {
+                block.dsub();
+            }
+        }
+    },
+
+    MULTIPLY(Multiply.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            if (operand == int.class) {
+                block.imul();
+            } else {
+                block.dmul();
+            }
+        }
+    },
+
+    DIVIDE(Divide.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            if (operand == int.class) {
+                block.idiv();
+            } else {
+                block.ddiv();
+            }
+        }
+    },
+
+    MODULO(Modulo.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            block.irem();
+        }
+
+        @Override
+        public Class<?> operandOf(Class<?> left, Class<?> right) {
+            if (left == int.class && right == int.class) {
+                return int.class;
+            } else {
+                return null;
+            }
+        }
+    },
+
+    EXPONENT(Exponent.class) {
+        @Override
+        public void generate(CodeBlock block, Class<?> operand) {
+            block.invokestatic(p(Math.class), "pow", sig(double.class, double.class, double.class));
+        }
+
+        @Override
+        public Class<?> operandOf(Class<?> left, Class<?> right) {
+            return double.class;
+        }
+    };
+
+    public static Arithmetic forOperator(Class<?> operator) {
+        for (Arithmetic arithmetic : values()) {
+            if (arithmetic.operator == operator) {
+                return arithmetic;
+            }
+        }
+        return null;
+    }
+
+    private final Class<?> operator;
+
+    private Arithmetic(Class<?> operator) {
+        this.operator = operator;
+    }
+
+    public abstract void generate(CodeBlock block, Class<?> operand);
+
+    public Class<?> operandOf(Class<?> left, Class<?> right) {
+        if (left == int.class && right == int.class) {
+            return int.class;
+        } else {
+            return double.class;
+        }
+    }
+}
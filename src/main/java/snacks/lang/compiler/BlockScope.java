@@ -1,13 +1,16 @@
 package snacks.lang.compiler;
 
 import me.qmx.jitescript.CodeBlock;
+import snacks.lang.ast.AstNode;
 import snacks.lang.ast.Exceptional;
 import snacks.lang.ast.Generator;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class BlockScope {
 
@@ -16,6 +19,7 @@ class BlockScope {
     private final Deque<GuardScope> guards;
     private final Deque<EmbraceScope> embraces;
     private final Deque<LoopScope> loops;
+    private TailCallScope tailCalls;
 
     public BlockScope(CodeBlock block) {
         this.block = block;
@@ -33,6 +37,10 @@ class BlockScope {
         return loops.peek();
     }
 
+    public TailCallScope currentTailCalls() {
+        return tailCalls;
+    }
+
     public void enterEmbrace(int exceptionVar, Exceptional node) {
         embraces.push(new EmbraceScope(exceptionVar, block, node.getEnsure()));
     }
@@ -48,6 +56,11 @@ class BlockScope {
         return loop;
     }
 
+    public void enterTailCalls(List<Integer> variables, Set<AstNode> calls) {
+        tailCalls = new TailCallScope(block, variables, calls);
+        tailCalls.begin();
+    }
+
     public void exitGuard() {
         guards.peek().exitGuard();
     }
@@ -3,6 +3,7 @@ package snacks.lang.compiler;
 import java.util.*;
 import me.qmx.jitescript.CodeBlock;
 import me.qmx.jitescript.JiteClass;
+import snacks.lang.ast.AstNode;
 import snacks.lang.ast.Exceptional;
 import snacks.lang.ast.Generator;
 
@@ -39,6 +40,10 @@ class ClassBuilder {
         return scope().currentLoop();
     }
 
+    public TailCallScope currentTailCalls() {
+        return scope().currentTailCalls();
+    }
+
     public void enterEmbrace(int exceptionVar, Exceptional node) {
         scope().enterEmbrace(exceptionVar, node);
     }
@@ -51,10 +56,18 @@ class ClassBuilder {
         return scopes.peek().enterLoop();
     }
 
+    public void enterTailCalls(List<Integer> variables, Set<AstNode> calls) {
+        scope().enterTailCalls(variables, calls);
+    }
+
     public void exitGuard() {
         scope().exitGuard();
     }
 
+    public int getFieldIndex(String name) {
+        return fields.indexOf(name);
+    }
+
     public JiteClass getJiteClass() {
         return jiteClass;
     }
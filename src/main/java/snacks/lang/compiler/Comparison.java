@@ -0,0 +1,122 @@
+package snacks.lang.compiler;
+
+import static me.qmx.jitescript.util.CodegenUtils.p;
+import static me.qmx.jitescript.util.CodegenUtils.sig;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFGE;
+import static org.objectweb.asm.Opcodes.IFGT;
+import static org.objectweb.asm.Opcodes.IFLE;
+import static org.objectweb.asm.Opcodes.IFLT;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
+import static org.objectweb.asm.Opcodes.IF_ICMPGE;
+import static org.objectweb.asm.Opcodes.IF_ICMPGT;
+import static org.objectweb.asm.Opcodes.IF_ICMPLE;
+import static org.objectweb.asm.Opcodes.IF_ICMPLT;
+import static org.objectweb.asm.Opcodes.IF_ICMPNE;
+
+import me.qmx.jitescript.CodeBlock;
+import org.objectweb.asm.tree.LabelNode;
+import snacks.lang.Equals;
+import snacks.lang.GreaterThan;
+import snacks.lang.GreaterThanEquals;
+import snacks.lang.LessThan;
+import snacks.lang.LessThanEquals;
+import snacks.lang.NotEquals;
+
+enum Comparison {
+
+    EQUALS(Equals.class, IF_ICMPEQ, IF_ICMPNE, IFEQ, IFNE) {
+        @Override
+        public Class<?> operandOf(Class<?> left, Class<?> right) {
+            return left == right ? left : null;
+        }
+
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.invokestatic(p(Double.class), "compare", sig(int.class, double.class, double.class));
+        }
+    },
+
+    NOT_EQUALS(NotEquals.class, IF_ICMPNE, IF_ICMPEQ, IFNE, IFEQ) {
+        @Override
+        public Class<?> operandOf(Class<?> left, Class<?> right) {
+            return left == right ? left : null;
+        }
+
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.invokestatic(p(Double.class), "compare", sig(int.class, double.class, double.class));
+        }
+    },
+
+    LESS_THAN(LessThan.class, IF_ICMPLT, IF_ICMPGE, IFLT, IFGE) {
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.dcmpg();
+        }
+    },
+
+    LESS_THAN_EQUALS(LessThanEquals.class, IF_ICMPLE, IF_ICMPGT, IFLE, IFGT) {
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.dcmpg();
+        }
+    },
+
+    GREATER_THAN(GreaterThan.class, IF_ICMPGT, IF_ICMPLE, IFGT, IFLE) {
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.dcmpl();
+        }
+    },
+
+    GREATER_THAN_EQUALS(GreaterThanEquals.class, IF_ICMPGE, IF_ICMPLT, IFGE, IFLT) {
+        @Override
+        protected void compareDoubles(CodeBlock block) {
+            block.dcmpl();
+        }
+    };
+
+    public static Comparison forOperator(Class<?> operator) {
+        for (Comparison comparison : values()) {
+            if (comparison.operator == operator) {
+                return comparison;
+            }
+        }
+        return null;
+    }
+
+    private final Class<?> operator;
+    private final int integerTrue;
+    private final int integerFalse;
+    private final int doubleTrue;
+    private final int doubleFalse;
+
+    private Comparison(Class<?> operator, int integerTrue, int integerFalse, int doubleTrue, int doubleFalse) {
+        this.operator = operator;
+        this.integerTrue = integerTrue;
+        this.integerFalse = integerFalse;
+        this.doubleTrue = doubleTrue;
+        this.doubleFalse = doubleFalse;
+    }
+
+    public void generate(CodeBlock block, Class<?> operand, LabelNode label, boolean jumpIf) {
+        if (operand == int.class) {
+            block.visitJumpInsn(jumpIf ? integerTrue : integerFalse, label);
+        } else {
+            compareDoubles(block);
+            block.visitJumpInsn(jumpIf ? doubleTrue : doubleFalse, label);
+        }
+    }
+
+    public Class<?> operandOf(Class<?> left, Class<?> right) {
+        if (left == int.class && right == int.class) {
+            return int.class;
+        } else {
+            return double.class;
+        }
+    }
+
+    protected abstract void compareDoubles(CodeBlock block);
+}
@@ -0,0 +1,9 @@
+package snacks.lang.compiler;
+
+public enum CompilationPhase {
+
+    PARSE,
+    TRANSLATE,
+    GENERATE,
+    DEFINE,
+}
@@ -0,0 +1,46 @@
+package snacks.lang.compiler;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CompilationTimings {
+
+    private final Map<CompilationPhase, AtomicLong> phases;
+    private final AtomicLong elapsed;
+
+    public CompilationTimings() {
+        this.phases = new EnumMap<>(CompilationPhase.class);
+        this.elapsed = new AtomicLong();
+        for (CompilationPhase phase : CompilationPhase.values()) {
+            phases.put(phase, new AtomicLong());
+        }
+    }
+
+    public long getElapsedMillis() {
+        return NANOSECONDS.toMillis(elapsed.get());
+    }
+
+    public long getMillis(CompilationPhase phase) {
+        return NANOSECONDS.toMillis(phases.get(phase).get());
+    }
+
+    public void record(CompilationPhase phase, long nanos) {
+        phases.get(phase).addAndGet(nanos);
+    }
+
+    public void recordElapsed(long nanos) {
+        elapsed.addAndGet(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (CompilationPhase phase : CompilationPhase.values()) {
+            builder.append(phase.name().toLowerCase()).append(": ").append(getMillis(phase)).append("ms, ");
+        }
+        return builder.append("elapsed: ").append(getElapsedMillis()).append("ms").toString();
+    }
+}
@@ -13,6 +13,7 @@ import snacks.lang.Infix;
 import snacks.lang.Invokable;
 import snacks.lang.JavaUtils;
 import snacks.lang.MatchException;
+import snacks.lang.Not;
 import snacks.lang.Operator;
 import snacks.lang.Prefix;
 import snacks.lang.Snack;
@@ -82,16 +83,22 @@ import snacks.lang.ast.VariableDeclaration;
 import snacks.lang.ast.VariableLocator;
 import snacks.lang.ast.VoidFunction;
 
+import java.lang.reflect.Method;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import static me.qmx.jitescript.util.CodegenUtils.c;
@@ -99,7 +106,12 @@ import static me.qmx.jitescript.util.CodegenUtils.ci;
 import static me.qmx.jitescript.util.CodegenUtils.p;
 import static me.qmx.jitescript.util.CodegenUtils.params;
 import static me.qmx.jitescript.util.CodegenUtils.sig;
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
+import static java.util.Collections.newSetFromMap;
 import static org.apache.commons.lang.StringUtils.join;
+import static org.apache.commons.lang.reflect.MethodUtils.getMatchingAccessibleMethod;
 import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
@@ -108,43 +120,80 @@ import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
 import static snacks.lang.JavaUtils.javaGetter;
 import static snacks.lang.JavaUtils.javaName;
+import static snacks.lang.SnackKind.EXPRESSION;
 import static snacks.lang.SnackKind.TYPE;
 import static snacks.lang.SnacksDispatcher.BOOTSTRAP_APPLY;
 import static snacks.lang.SnacksDispatcher.BOOTSTRAP_GET;
 import static snacks.lang.Type.SimpleType;
 import static snacks.lang.Type.UnionType;
 import static snacks.lang.Type.VariableType;
+import static snacks.lang.Types.booleanType;
+import static snacks.lang.Types.doubleType;
+import static snacks.lang.Types.integerType;
 import static snacks.lang.Types.isInvokable;
+import static snacks.lang.compiler.CompilerOption.CONSOLIDATE_CLOSURES;
+import static snacks.lang.compiler.CompilerOption.FOLD_CONSTANTS;
+import static snacks.lang.compiler.CompilerOption.INTRINSIC_COMPARISONS;
+import static snacks.lang.compiler.CompilerOption.STATIC_APPLY;
+import static snacks.lang.compiler.CompilerOption.TAIL_CALLS;
+import static snacks.lang.compiler.CompilerOption.UNBOXED_ARITHMETIC;
+import static snacks.lang.compiler.CompilerOption.UNCURRIED_APPLY;
 
 public class Compiler implements Generator, TypeGenerator, Reducer {
 
     private static final Pattern tuplePattern = Pattern.compile("^_\\d+$");
+    private static final int maxArity = 254;
 
     private final SnacksRegistry registry;
+    private final Set<CompilerOption> options;
     private final List<JiteClass> acceptedClasses;
     private final Deque<ClassBuilder> builders;
     private final Map<Locator, NamedNode> declarations;
     private final List<JiteClass> childClasses;
     private final ArrayDeque<LabelNode> patternScopes;
+    private final Map<String, List<DeclaredExpression>> closures;
+    private final Map<String, ClassBuilder> closureClasses;
     private String parentClass;
+    private String currentDeclaration;
 
     public Compiler(SnacksRegistry registry) {
+        this(registry, CompilerOption.defaultOptions());
+    }
+
+    public Compiler(SnacksRegistry registry, Set<CompilerOption> options) {
         this.registry = registry;
+        this.options = options.isEmpty() ? EnumSet.noneOf(CompilerOption.class) : EnumSet.copyOf(options);
         this.acceptedClasses = new ArrayList<>();
         this.builders = new ArrayDeque<>();
         this.declarations = new HashMap<>();
         this.childClasses = new ArrayList<>();
         this.patternScopes = new ArrayDeque<>();
+        this.closures = new LinkedHashMap<>();
+        this.closureClasses = new LinkedHashMap<>();
     }
 
     public List<SnackDefinition> compile(Collection<NamedNode> declarations) {
+        if (options.contains(FOLD_CONSTANTS)) {
+            declarations = new Optimizer(registry).optimize(declarations);
+        }
         this.declarations.clear();
+        this.closures.clear();
+        this.closureClasses.clear();
         for (NamedNode declaration : declarations) {
             this.declarations.put(declaration.locator(), declaration);
+            if (isConsolidated(declaration)) {
+                if (!closures.containsKey(declaration.getModule())) {
+                    closures.put(declaration.getModule(), new ArrayList<DeclaredExpression>());
+                }
+                closures.get(declaration.getModule()).add((DeclaredExpression) declaration);
+            }
         }
         for (NamedNode declaration : declarations) {
             generate(declaration);
         }
+        for (String module : closureClasses.keySet()) {
+            acceptClosureClass(module);
+        }
         List<SnackDefinition> definitions = new ArrayList<>();
         for (JiteClass jiteClass : acceptedClasses) {
             byte[] bytes = jiteClass.toBytes(JDKVersion.V1_7);
@@ -160,10 +209,8 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateAccess(Access node) {
-        CodeBlock block = block();
         generate(node.getExpression());
-        block.ldc(node.getProperty());
-        block.invokedynamic("get", sig(Object.class, Object.class, String.class), BOOTSTRAP_GET);
+        block().invokedynamic("get", sig(Object.class, Object.class), BOOTSTRAP_GET, node.getProperty());
     }
 
     @Override
@@ -179,9 +226,41 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateApply(Apply node) {
-        generate(node.getFunction());
-        generate(node.getArgument());
-        block().invokedynamic("apply", sig(Object.class, Object.class, Object.class), BOOTSTRAP_APPLY);
+        TailCallScope tailCalls = currentTailCalls();
+        if (tailCalls != null && tailCalls.isTailCall(node)) {
+            generateTailCall(node, tailCalls);
+            return;
+        } else if (arithmeticOf(node) != null) {
+            box(generateUnboxed(node));
+            return;
+        } else if (comparisonOf(node) != null || isNegation(node)) {
+            generateBoolean(node);
+            return;
+        }
+        List<AstNode> arguments = new ArrayList<>();
+        AstNode function = node;
+        while (function instanceof Apply) {
+            arguments.add(0, ((Apply) function).getArgument());
+            function = ((Apply) function).getFunction();
+        }
+        String uncurriedClass = uncurriedClass(function, arguments.size());
+        if (uncurriedClass != null) {
+            generateUncurriedApply(uncurriedClass, function, arguments);
+            return;
+        }
+        ApplyTarget target = applyTarget(node);
+        if (target == null) {
+            generate(node.getFunction());
+            generate(node.getArgument());
+            block().invokedynamic("apply", sig(Object.class, Object.class, Object.class), BOOTSTRAP_APPLY);
+        } else {
+            CodeBlock block = block();
+            generate(node.getFunction());
+            target.checkFunction(block);
+            generate(node.getArgument());
+            target.checkArgument(block);
+            target.invoke(block);
+        }
     }
 
     @Override
@@ -223,21 +302,44 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateClosure(Closure node) {
-        defineClosureFields(node.getEnvironment());
-        defineClosureConstructor(node.getEnvironment());
-        generateInvoke(node.getBody());
+        if (options.contains(CONSOLIDATE_CLOSURES)) {
+            state().setFields(node.getEnvironment());
+            generateClosureMethod(null, node.getBody());
+        } else {
+            defineClosureFields(node.getEnvironment());
+            defineClosureConstructor(node.getEnvironment());
+            generateInvoke(node.getBody());
+        }
     }
 
     @Override
     public void generateClosureLocator(ClosureLocator locator) {
         CodeBlock block = block();
-        String className = javaClass(locator.getName());
-        block.newobj(className);
-        block.dup();
-        for (String variable : locator.getEnvironment()) {
-            loadVariable(variable);
+        if (options.contains(CONSOLIDATE_CLOSURES)) {
+            String module = locator.getName().substring(0, locator.getName().lastIndexOf('.'));
+            String className = closureClass(module).getJiteClass().getClassName();
+            List<String> environment = locator.getEnvironment();
+            block.newobj(className);
+            block.dup();
+            block.pushInt(closureId(module, locator.getName()));
+            block.pushInt(environment.size());
+            block.anewarray(p(Object.class));
+            for (int i = 0; i < environment.size(); i++) {
+                block.dup();
+                block.pushInt(i);
+                loadVariable(environment.get(i));
+                block.aastore();
+            }
+            block.invokespecial(className, "<init>", sig(void.class, int.class, Object[].class));
+        } else {
+            String className = javaClass(locator.getName());
+            block.newobj(className);
+            block.dup();
+            for (String variable : locator.getEnvironment()) {
+                loadVariable(variable);
+            }
+            block.invokespecial(className, "<init>", sig(params(void.class, Object.class, locator.getEnvironment().size())));
         }
-        block.invokespecial(className, "<init>", sig(params(void.class, Object.class, locator.getEnvironment().size())));
     }
 
     @Override
@@ -295,6 +397,15 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateDeclaredExpression(DeclaredExpression node) {
+        if (isConsolidated(node)) {
+            builders.push(closureClass(node.getModule()));
+            String previousDeclaration = currentDeclaration;
+            currentDeclaration = node.getQualifiedName();
+            generate(node.getBody());
+            currentDeclaration = previousDeclaration;
+            builders.pop();
+            return;
+        }
         JiteClass jiteClass = beginClass(node, interfacesFor(node.getType()));
         if (node.isOperator()) {
             Operator operator = node.getOperator();
@@ -309,7 +420,10 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
                 );
             }
         }
+        String previousDeclaration = currentDeclaration;
+        currentDeclaration = node.getQualifiedName();
         generate(node.getBody());
+        currentDeclaration = previousDeclaration;
         acceptClass();
     }
 
@@ -455,31 +569,45 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateExpressionConstant(ExpressionConstant node) {
+        String holderClass = defineConstantHolder(node.getValue());
         CodeBlock block = beginBlock();
+        LabelNode evaluated = new LabelNode(new Label());
         LabelNode returnValue = new LabelNode(new Label());
-        JiteClass jiteClass = jiteClass();
-        jiteClass.defineField("instance", ACC_PRIVATE | ACC_STATIC, ci(Object.class), null);
-        block.getstatic(jiteClass.getClassName(), "instance", ci(Object.class));
-        block.ifnonnull(returnValue);
-        generate(node.getValue());
-        block.putstatic(jiteClass.getClassName(), "instance", ci(Object.class));
+        block.getstatic(holderClass, "evaluated", ci(boolean.class));
+        block.ifne(evaluated);
+        block.invokestatic(holderClass, "evaluate", sig(Object.class));
+        block.areturn();
+        block.label(evaluated);
+        block.getstatic(holderClass, "failure", ci(Exception.class));
+        block.dup();
+        block.ifnull(returnValue);
+        block.athrow();
         block.label(returnValue);
-        block.getstatic(jiteClass.getClassName(), "instance", ci(Object.class));
+        block.pop();
+        block.getstatic(holderClass, "value", ci(Object.class));
         block.areturn();
-        jiteClass.defineMethod("instance", ACC_PUBLIC | ACC_STATIC, sig(Object.class), acceptBlock());
+        jiteClass().defineMethod("instance", ACC_PUBLIC | ACC_STATIC, sig(Object.class), acceptBlock());
     }
 
     @Override
     public void generateFunction(Function node) {
         defineFunctionInitializer();
         generateApply(node.getVariable(), node.getBody());
+        if (options.contains(UNCURRIED_APPLY)) {
+            generateUncurriedApply(node);
+        }
     }
 
     @Override
     public void generateFunctionClosure(FunctionClosure node) {
-        defineClosureFields(node.getEnvironment());
-        defineClosureConstructor(node.getEnvironment());
-        generateApply(node.getVariable(), node.getBody());
+        if (options.contains(CONSOLIDATE_CLOSURES)) {
+            state().setFields(node.getEnvironment());
+            generateClosureMethod(node.getVariable(), node.getBody());
+        } else {
+            defineClosureFields(node.getEnvironment());
+            defineClosureConstructor(node.getEnvironment());
+            generateApply(node.getVariable(), node.getBody());
+        }
     }
 
     @Override
@@ -496,10 +624,7 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
     public void generateGuardCase(GuardCase node) {
         CodeBlock block = block();
         LabelNode skipLabel = new LabelNode();
-        generate(node.getCondition());
-        block.ldc(true);
-        block.invokestatic(p(Boolean.class), "valueOf", sig(Boolean.class, boolean.class));
-        block.if_acmpne(skipLabel);
+        generateBranch(node.getCondition(), skipLabel, false);
         generate(node.getExpression());
         exitGuard();
         block.label(skipLabel);
@@ -554,45 +679,18 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     @Override
     public void generateLogicalAnd(LogicalAnd node) {
-        CodeBlock block = block();
-        LabelNode skipLabel = new LabelNode();
-        LabelNode endLabel = new LabelNode();
-        generate(node.getLeft());
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.if_acmpne(skipLabel);
-        generate(node.getRight());
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.if_acmpne(skipLabel);
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.go_to(endLabel);
-        block.label(skipLabel);
-        block.getstatic(p(Boolean.class), "FALSE", ci(Boolean.class));
-        block.label(endLabel);
+        generateBoolean(node);
     }
 
     @Override
     public void generateLogicalOr(LogicalOr node) {
-        CodeBlock block = block();
-        LabelNode skipLabel = new LabelNode();
-        LabelNode endLabel = new LabelNode();
-        generate(node.getLeft());
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.if_acmpeq(skipLabel);
-        generate(node.getRight());
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.if_acmpeq(skipLabel);
-        block.getstatic(p(Boolean.class), "FALSE", ci(Boolean.class));
-        block.go_to(endLabel);
-        block.label(skipLabel);
-        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
-        block.label(endLabel);
+        generateBoolean(node);
     }
 
     @Override
     public void generateLoop(Loop node) {
         LoopScope loop = enterLoop();
-        generate(node.getCondition());
-        loop.testCondition();
+        generateBranch(node.getCondition(), loop.getEnd(), false);
         generate(node.getBody());
         leaveLoop();
     }
@@ -612,7 +710,7 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         block.instance_of(classOf(node.getReference().getType()));
         block.iffalse(nextPattern());
         for (AstNode parameter : node.getParameters()) {
-            generate(parameter);
+            generateMatcher(parameter);
         }
     }
 
@@ -625,7 +723,7 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
     public void generatePatternCase(PatternCase node) {
         enterPattern();
         for (AstNode matcher : node.getMatchers()) {
-            generate(matcher);
+            generateMatcher(matcher);
         }
         generate(node.getBody());
         leavePattern();
@@ -821,6 +919,117 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return jiteClass;
     }
 
+    private void acceptClosureClass(String module) {
+        final JiteClass jiteClass = closureClass(module).getJiteClass();
+        final String className = jiteClass.getClassName();
+        List<DeclaredExpression> moduleClosures = closures.get(module);
+        LabelNode[] labels = new LabelNode[moduleClosures.size()];
+        LabelNode missing = new LabelNode();
+        CodeBlock block = new CodeBlock();
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new LabelNode();
+        }
+        block.aload(0);
+        block.getfield(className, "id", ci(int.class));
+        block.tableswitch(0, labels.length - 1, missing, labels);
+        for (int i = 0; i < labels.length; i++) {
+            DeclaredExpression closure = moduleClosures.get(i);
+            block.label(labels[i]);
+            block.aload(0);
+            block.getfield(className, "environment", ci(Object[].class));
+            if (closure.getBody() instanceof FunctionClosure) {
+                block.aload(1);
+                block.invokestatic(className, closureMethod(closure.getQualifiedName()), sig(Object.class, Object[].class, Object.class));
+            } else {
+                block.invokestatic(className, closureMethod(closure.getQualifiedName()), sig(Object.class, Object[].class));
+            }
+            block.areturn();
+        }
+        block.label(missing);
+        block.newobj(p(IllegalStateException.class));
+        block.dup();
+        block.invokespecial(p(IllegalStateException.class), "<init>", sig(void.class));
+        block.athrow();
+        jiteClass.defineMethod("apply", ACC_PUBLIC, sig(Object.class, Object.class), block);
+        jiteClass.defineMethod("invoke", ACC_PUBLIC, sig(Object.class), new CodeBlock() {{
+            aload(0);
+            getstatic(p(Unit.class), "UNIT", ci(Unit.class));
+            invokevirtual(className, "apply", sig(Object.class, Object.class));
+            areturn();
+        }});
+        acceptedClasses.add(jiteClass);
+    }
+
+    private Method applyMethod(Class<?> clazz, Type argumentType) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : clazz.getMethods()) {
+            if ("apply".equals(method.getName()) && method.getParameterTypes().length == 1 && !isStatic(method.getModifiers())) {
+                methods.add(method);
+            }
+        }
+        if (methods.size() == 1) {
+            return methods.get(0);
+        } else {
+            Class<?> argumentClass = exactClassOf(argumentType);
+            if (argumentClass == null) {
+                return null;
+            } else {
+                return getMatchingAccessibleMethod(clazz, "apply", new Class<?>[] { argumentClass });
+            }
+        }
+    }
+
+    private ApplyTarget applyTarget(Apply node) {
+        if (options.contains(STATIC_APPLY) && node.getFunction() instanceof Reference) {
+            Reference reference = (Reference) node.getFunction();
+            if (reference.getLocator() instanceof DeclarationLocator && isMonomorphicFunction(reference.getType())) {
+                return applyTarget((DeclarationLocator) reference.getLocator(), node.getArgument().getType());
+            }
+        }
+        return null;
+    }
+
+    private ApplyTarget applyTarget(DeclarationLocator locator, Type argumentType) {
+        if (locator.getKind() != EXPRESSION) {
+            return null;
+        }
+        Class<?> clazz = registry.classOf(locator.getName(), EXPRESSION);
+        if (clazz == null) {
+            NamedNode declaration = declarations.get(locator);
+            if (declaration instanceof DeclaredExpression && ((DeclaredExpression) declaration).getBody() instanceof Function) {
+                return new ApplyTarget(locator.getJavaName(), p(Object.class), sig(Object.class, Object.class));
+            } else if (declaration instanceof DeclaredConstructor && ((DeclaredConstructor) declaration).getBody() instanceof Function) {
+                return new ApplyTarget(locator.getJavaName() + "Constructor", p(Object.class), sig(Object.class, Object.class));
+            } else {
+                return null;
+            }
+        } else if (isPublic(clazz.getModifiers()) && hasInstance(clazz)) {
+            Method method = applyMethod(clazz, argumentType);
+            if (method == null || method.getReturnType().isPrimitive() || !isPublic(method.getDeclaringClass().getModifiers())) {
+                return null;
+            } else {
+                return new ApplyTarget(p(clazz), p(method.getParameterTypes()[0]), sig(method.getReturnType(), method.getParameterTypes()));
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private Arithmetic arithmeticOf(AstNode node) {
+        if (options.contains(UNBOXED_ARITHMETIC) && node instanceof Apply && ((Apply) node).getFunction() instanceof Apply) {
+            Apply operation = (Apply) ((Apply) node).getFunction();
+            Class<?> left = primitiveOf(operation.getArgument());
+            Class<?> right = primitiveOf(((Apply) node).getArgument());
+            if (left != null && right != null) {
+                Arithmetic arithmetic = Arithmetic.forOperator(operatorOf(operation.getFunction()));
+                if (arithmetic != null && arithmetic.operandOf(left, right) != null) {
+                    return arithmetic;
+                }
+            }
+        }
+        return null;
+    }
+
     private String[] array(List<String> list) {
         return list.toArray(new String[list.size()]);
     }
@@ -879,10 +1088,55 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return jiteClass;
     }
 
+    private void box(Class<?> primitive) {
+        if (primitive == int.class) {
+            block().invokestatic(p(Integer.class), "valueOf", sig(Integer.class, int.class));
+        } else {
+            block().invokestatic(p(Double.class), "valueOf", sig(Double.class, double.class));
+        }
+    }
+
     private CodeBlock block() {
         return state().block();
     }
 
+    private ClassBuilder closureClass(String module) {
+        if (!closureClasses.containsKey(module)) {
+            final String className = module.replace('.', '/') + "/¢Closures";
+            JiteClass jiteClass = new JiteClass(className, p(Object.class), new String[] { p(Invokable.class) });
+            jiteClass.setAccess(ACC_PUBLIC | ACC_FINAL);
+            jiteClass.defineField("id", ACC_PRIVATE | ACC_FINAL, ci(int.class), null);
+            jiteClass.defineField("environment", ACC_PRIVATE | ACC_FINAL, ci(Object[].class), null);
+            jiteClass.defineMethod("<init>", ACC_PUBLIC, sig(void.class, int.class, Object[].class), new CodeBlock() {{
+                aload(0);
+                invokespecial(p(Object.class), "<init>", sig(void.class));
+                aload(0);
+                iload(1);
+                putfield(className, "id", ci(int.class));
+                aload(0);
+                aload(2);
+                putfield(className, "environment", ci(Object[].class));
+                voidreturn();
+            }});
+            closureClasses.put(module, new ClassBuilder(jiteClass));
+        }
+        return closureClasses.get(module);
+    }
+
+    private int closureId(String module, String qualifiedName) {
+        List<DeclaredExpression> moduleClosures = closures.get(module);
+        for (int i = 0; i < moduleClosures.size(); i++) {
+            if (moduleClosures.get(i).getQualifiedName().equals(qualifiedName)) {
+                return i;
+            }
+        }
+        throw new UndefinedSymbolException("Cannot find closure " + qualifiedName);
+    }
+
+    private String closureMethod(String qualifiedName) {
+        return javaName(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1));
+    }
+
     private String classOf(Type type) {
         Class<?> clazz = registry.classOf(type.getName().getValue(), TYPE);
         if (clazz == null) {
@@ -892,6 +1146,21 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         }
     }
 
+    private Comparison comparisonOf(AstNode node) {
+        if (options.contains(INTRINSIC_COMPARISONS) && node instanceof Apply && ((Apply) node).getFunction() instanceof Apply) {
+            Apply operation = (Apply) ((Apply) node).getFunction();
+            Class<?> left = primitiveOf(operation.getArgument());
+            Class<?> right = primitiveOf(((Apply) node).getArgument());
+            if (left != null && right != null) {
+                Comparison comparison = Comparison.forOperator(operatorOf(operation.getFunction()));
+                if (comparison != null && comparison.operandOf(left, right) != null) {
+                    return comparison;
+                }
+            }
+        }
+        return null;
+    }
+
     private EmbraceScope currentEmbrace() {
         return state().currentEmbrace();
     }
@@ -900,6 +1169,10 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return state().currentLoop();
     }
 
+    private TailCallScope currentTailCalls() {
+        return state().currentTailCalls();
+    }
+
     private void defineClosureConstructor(List<String> environment) {
         String signature = sig(params(void.class, Object.class, environment.size()));
         CodeBlock block = beginBlock();
@@ -923,19 +1196,57 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         }
     }
 
+    private String defineConstantHolder(AstNode value) {
+        JiteClass jiteClass = new JiteClass(jiteClass().getClassName() + "$Value", p(Object.class), new String[0]);
+        jiteClass.setAccess(ACC_FINAL);
+        jiteClass.defineField("value", ACC_STATIC | ACC_FINAL, ci(Object.class), null);
+        jiteClass.defineField("failure", ACC_STATIC | ACC_FINAL, ci(Exception.class), null);
+        jiteClass.defineField("evaluated", ACC_STATIC | ACC_FINAL, ci(boolean.class), null);
+        builders.push(new ClassBuilder(jiteClass));
+        CodeBlock evaluate = beginBlock();
+        generate(value);
+        evaluate.areturn();
+        jiteClass.defineMethod("evaluate", ACC_STATIC, sig(Object.class), acceptBlock());
+        CodeBlock block = beginBlock();
+        LabelNode beginEvaluate = new LabelNode();
+        LabelNode endEvaluate = new LabelNode();
+        LabelNode failure = new LabelNode();
+        LabelNode error = new LabelNode();
+        LabelNode initialized = new LabelNode();
+        block.trycatch(beginEvaluate, endEvaluate, failure, p(Exception.class));
+        block.trycatch(beginEvaluate, endEvaluate, error, p(Error.class));
+        block.label(beginEvaluate);
+        block.invokestatic(jiteClass.getClassName(), "evaluate", sig(Object.class));
+        block.putstatic(jiteClass.getClassName(), "value", ci(Object.class));
+        block.label(endEvaluate);
+        block.iconst_1();
+        block.putstatic(jiteClass.getClassName(), "evaluated", ci(boolean.class));
+        block.go_to(initialized);
+        block.label(failure);
+        block.putstatic(jiteClass.getClassName(), "failure", ci(Exception.class));
+        block.iconst_1();
+        block.putstatic(jiteClass.getClassName(), "evaluated", ci(boolean.class));
+        block.go_to(initialized);
+        block.label(error);
+        block.pop();
+        block.label(initialized);
+        block.voidreturn();
+        jiteClass.defineMethod("<clinit>", ACC_STATIC, sig(void.class), acceptBlock());
+        return acceptClass().getClassName();
+    }
+
     private void defineFunctionInitializer() {
         JiteClass jiteClass = jiteClass();
         String className = "L" + jiteClass().getClassName() + ";";
+        CodeBlock initializer = beginBlock();
+        jiteClass.defineField("instance", ACC_PRIVATE | ACC_STATIC | ACC_FINAL, className, null);
+        initializer.newobj(jiteClass.getClassName());
+        initializer.dup();
+        initializer.invokespecial(jiteClass.getClassName(), "<init>", sig(void.class));
+        initializer.putstatic(jiteClass.getClassName(), "instance", className);
+        initializer.voidreturn();
+        jiteClass.defineMethod("<clinit>", ACC_STATIC, sig(void.class), acceptBlock());
         CodeBlock block = beginBlock();
-        LabelNode returnValue = new LabelNode(new Label());
-        jiteClass.defineField("instance", ACC_PRIVATE | ACC_STATIC, className, null);
-        block.getstatic(jiteClass.getClassName(), "instance", className);
-        block.ifnonnull(returnValue);
-        block.newobj(jiteClass.getClassName());
-        block.dup();
-        block.invokespecial(jiteClass.getClassName(), "<init>", sig(void.class));
-        block.putstatic(jiteClass.getClassName(), "instance", className);
-        block.label(returnValue);
         block.getstatic(jiteClass.getClassName(), "instance", className);
         block.areturn();
         jiteClass.defineMethod("instance", ACC_PUBLIC | ACC_STATIC, sig(Object.class), acceptBlock());
@@ -963,6 +1274,20 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return state().enterLoop();
     }
 
+    private void enterTailCalls(List<String> variables, AstNode body) {
+        if (options.contains(TAIL_CALLS) && currentDeclaration != null) {
+            Set<AstNode> calls = newSetFromMap(new IdentityHashMap<AstNode, Boolean>());
+            findTailCalls(body, variables.size(), calls);
+            if (!calls.isEmpty()) {
+                List<Integer> slots = new ArrayList<>();
+                for (String variable : variables) {
+                    slots.add(getVariable(variable));
+                }
+                state().enterTailCalls(slots, calls);
+            }
+        }
+    }
+
     private void enterPattern() {
         patternScopes.push(new LabelNode());
     }
@@ -982,6 +1307,7 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
     private void generateApply(String variable, AstNode body) {
         CodeBlock block = beginBlock();
         getVariable(variable);
+        enterTailCalls(Arrays.asList(variable), body);
         generate(body);
         if (!block.returns()) {
             block.areturn();
@@ -989,6 +1315,92 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         jiteClass().defineMethod("apply", ACC_PUBLIC, sig(Object.class, Object.class), acceptBlock());
     }
 
+    private void generateBoolean(AstNode node) {
+        CodeBlock block = block();
+        LabelNode falseLabel = new LabelNode();
+        LabelNode endLabel = new LabelNode();
+        generateBranch(node, falseLabel, false);
+        block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
+        block.go_to(endLabel);
+        block.label(falseLabel);
+        block.getstatic(p(Boolean.class), "FALSE", ci(Boolean.class));
+        block.label(endLabel);
+    }
+
+    private void generateBranch(AstNode node, LabelNode label, boolean jumpIf) {
+        CodeBlock block = block();
+        Comparison comparison = comparisonOf(node);
+        if (comparison != null) {
+            AstNode left = ((Apply) ((Apply) node).getFunction()).getArgument();
+            AstNode right = ((Apply) node).getArgument();
+            Class<?> operand = comparison.operandOf(primitiveOf(left), primitiveOf(right));
+            generateUnboxed(left, operand);
+            generateUnboxed(right, operand);
+            comparison.generate(block, operand, label, jumpIf);
+        } else if (isNegation(node)) {
+            generateBranch(((Apply) node).getArgument(), label, !jumpIf);
+        } else if (node instanceof BooleanConstant) {
+            if (((BooleanConstant) node).getValue() == jumpIf) {
+                block.go_to(label);
+            }
+        } else if (node instanceof LogicalAnd) {
+            LogicalAnd and = (LogicalAnd) node;
+            if (jumpIf) {
+                LabelNode skipLabel = new LabelNode();
+                generateBranch(and.getLeft(), skipLabel, false);
+                generateBranch(and.getRight(), label, true);
+                block.label(skipLabel);
+            } else {
+                generateBranch(and.getLeft(), label, false);
+                generateBranch(and.getRight(), label, false);
+            }
+        } else if (node instanceof LogicalOr) {
+            LogicalOr or = (LogicalOr) node;
+            if (jumpIf) {
+                generateBranch(or.getLeft(), label, true);
+                generateBranch(or.getRight(), label, true);
+            } else {
+                LabelNode skipLabel = new LabelNode();
+                generateBranch(or.getLeft(), skipLabel, true);
+                generateBranch(or.getRight(), label, false);
+                block.label(skipLabel);
+            }
+        } else if (node instanceof ReferencesEqual) {
+            generate(((ReferencesEqual) node).getLeft());
+            generate(((ReferencesEqual) node).getRight());
+            if (jumpIf) {
+                block.if_acmpeq(label);
+            } else {
+                block.if_acmpne(label);
+            }
+        } else {
+            generate(node);
+            block.getstatic(p(Boolean.class), "TRUE", ci(Boolean.class));
+            if (jumpIf) {
+                block.if_acmpeq(label);
+            } else {
+                block.if_acmpne(label);
+            }
+        }
+    }
+
+    private void generateClosureMethod(String variable, AstNode body) {
+        CodeBlock block = beginBlock();
+        String signature;
+        if (variable == null) {
+            signature = sig(Object.class, Object[].class);
+        } else {
+            getVariable(variable);
+            enterTailCalls(Arrays.asList(variable), body);
+            signature = sig(Object.class, Object[].class, Object.class);
+        }
+        generate(body);
+        if (!block.returns()) {
+            block.areturn();
+        }
+        jiteClass().defineMethod(closureMethod(currentDeclaration), ACC_PRIVATE | ACC_STATIC, signature, acceptBlock());
+    }
+
     private void generateInvoke(AstNode body) {
         final JiteClass jiteClass = jiteClass();
         CodeBlock block = beginBlock();
@@ -1005,6 +1417,77 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         }});
     }
 
+    private Class<?> generateUnboxed(AstNode node) {
+        CodeBlock block = block();
+        Arithmetic arithmetic = arithmeticOf(node);
+        if (arithmetic != null) {
+            AstNode left = ((Apply) ((Apply) node).getFunction()).getArgument();
+            AstNode right = ((Apply) node).getArgument();
+            Class<?> operand = arithmetic.operandOf(primitiveOf(left), primitiveOf(right));
+            generateUnboxed(left, operand);
+            generateUnboxed(right, operand);
+            arithmetic.generate(block, operand);
+            return operand;
+        } else if (node instanceof IntegerConstant) {
+            block.ldc(((IntegerConstant) node).getValue());
+            return int.class;
+        } else if (node instanceof DoubleConstant) {
+            block.ldc(((DoubleConstant) node).getValue());
+            return double.class;
+        } else {
+            Class<?> primitive = primitiveOf(node);
+            generate(node);
+            if (primitive == int.class) {
+                block.checkcast(p(Integer.class));
+                block.invokevirtual(p(Integer.class), "intValue", sig(int.class));
+            } else {
+                block.checkcast(p(Double.class));
+                block.invokevirtual(p(Double.class), "doubleValue", sig(double.class));
+            }
+            return primitive;
+        }
+    }
+
+    private void generateMatcher(AstNode matcher) {
+        generate(matcher);
+        if (matcher instanceof Assign) {
+            block().pop();
+        }
+    }
+
+    private void generateUnboxed(AstNode node, Class<?> primitive) {
+        if (generateUnboxed(node) == int.class && primitive == double.class) {
+            block().i2d();
+        }
+    }
+
+    private void generateUncurriedApply(Function node) {
+        List<String> variables = new ArrayList<>();
+        AstNode body = uncurry(node, variables);
+        if (variables.size() > 1) {
+            CodeBlock block = beginBlock();
+            for (String variable : variables) {
+                getVariable(variable);
+            }
+            enterTailCalls(variables, body);
+            generate(body);
+            if (!block.returns()) {
+                block.areturn();
+            }
+            jiteClass().defineMethod("apply", ACC_PUBLIC, sig(params(Object.class, Object.class, variables.size())), acceptBlock());
+        }
+    }
+
+    private void generateUncurriedApply(String className, AstNode function, List<AstNode> arguments) {
+        CodeBlock block = block();
+        generate(function);
+        block.checkcast(className);
+        for (AstNode argument : arguments) {
+            generate(argument);
+        }
+        block.invokevirtual(className, "apply", sig(params(Object.class, Object.class, arguments.size())));
+    }
+
     private void generateProperties(final DeclaredRecord node) {
         final JiteClass jiteClass = jiteClass();
         for (final Property property : node.getProperties()) {
@@ -1018,6 +1501,19 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         }
     }
 
+    private void generateTailCall(Apply node, TailCallScope tailCalls) {
+        List<AstNode> arguments = new ArrayList<>();
+        AstNode function = node;
+        while (function instanceof Apply) {
+            arguments.add(0, ((Apply) function).getArgument());
+            function = ((Apply) function).getFunction();
+        }
+        for (AstNode argument : arguments) {
+            generate(argument);
+        }
+        tailCalls.recur();
+    }
+
     private void generateToString(final DeclaredRecord node) {
         final List<Property> properties = node.getProperties();
         final JiteClass jiteClass = jiteClass();
@@ -1084,6 +1580,49 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return state().getVariable(name);
     }
 
+    private void findTailCalls(AstNode node, int arity, Set<AstNode> calls) {
+        if (node instanceof Apply) {
+            if (isSelfCall((Apply) node, arity)) {
+                calls.add(node);
+            }
+        } else if (node instanceof Sequence) {
+            List<AstNode> elements = ((Sequence) node).getElements();
+            findTailCalls(elements.get(elements.size() - 1), arity, calls);
+        } else if (node instanceof GuardCases) {
+            for (AstNode guard : ((GuardCases) node).getCases()) {
+                findTailCalls(guard, arity, calls);
+            }
+        } else if (node instanceof GuardCase) {
+            findTailCalls(((GuardCase) node).getExpression(), arity, calls);
+        } else if (node instanceof PatternCases) {
+            for (PatternCase pattern : ((PatternCases) node).getPatterns()) {
+                findTailCalls(pattern, arity, calls);
+            }
+        } else if (node instanceof PatternCase) {
+            findTailCalls(((PatternCase) node).getBody(), arity, calls);
+        } else if (node instanceof Result) {
+            findTailCalls(((Result) node).getValue(), arity, calls);
+        }
+    }
+
+    private Class<?> exactClassOf(Type type) {
+        if (type.decompose().size() == 1 && type.expose() instanceof SimpleType) {
+            Class<?> clazz = registry.classOf(type.getName().getValue(), TYPE);
+            if (clazz != null && isFinal(clazz.getModifiers())) {
+                return clazz;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasInstance(Class<?> clazz) {
+        try {
+            return isStatic(clazz.getMethod("instance").getModifiers());
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
     private boolean hasParent() {
         return parentClass != null;
     }
@@ -1096,10 +1635,65 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         return interfaces;
     }
 
+    private FunctionClosure curriedClosure(AstNode body, List<String> variables) {
+        if (body instanceof Reference && ((Reference) body).getLocator() instanceof ClosureLocator) {
+            ClosureLocator locator = (ClosureLocator) ((Reference) body).getLocator();
+            NamedNode declaration = declarations.get(new DeclarationLocator(locator.getName()));
+            if (declaration instanceof DeclaredExpression && ((DeclaredExpression) declaration).getBody() instanceof FunctionClosure) {
+                FunctionClosure closure = (FunctionClosure) ((DeclaredExpression) declaration).getBody();
+                Set<String> environment = new HashSet<>(variables);
+                if (environment.equals(new HashSet<>(locator.getEnvironment()))
+                    && environment.equals(new HashSet<>(closure.getEnvironment()))
+                    && !environment.contains(closure.getVariable())) {
+                    return closure;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isBoolean(AstNode node) {
+        Type type = node.getType();
+        return type.decompose().size() == 1 && booleanType().equals(type.expose());
+    }
+
+    private boolean isConsolidated(NamedNode node) {
+        return options.contains(CONSOLIDATE_CLOSURES)
+            && node instanceof DeclaredExpression
+            && (((DeclaredExpression) node).getBody() instanceof Closure || ((DeclaredExpression) node).getBody() instanceof FunctionClosure);
+    }
+
     private boolean isField(String name) {
         return state().isField(name);
     }
 
+    private boolean isMonomorphicFunction(Type type) {
+        return type.decompose().size() == 1 && type.expose() instanceof FunctionType;
+    }
+
+    private boolean isSelfCall(Apply node, int arity) {
+        AstNode function = node;
+        int arguments = 0;
+        while (function instanceof Apply) {
+            function = ((Apply) function).getFunction();
+            arguments++;
+        }
+        if (arguments == arity && function instanceof Reference) {
+            Locator locator = ((Reference) function).getLocator();
+            return locator instanceof DeclarationLocator
+                && ((DeclarationLocator) locator).getKind() == EXPRESSION
+                && locator.getName().equals(currentDeclaration);
+        }
+        return false;
+    }
+
+    private boolean isNegation(AstNode node) {
+        return options.contains(INTRINSIC_COMPARISONS)
+            && node instanceof Apply
+            && operatorOf(((Apply) node).getFunction()) == Not.class
+            && isBoolean(((Apply) node).getArgument());
+    }
+
     private boolean isNamedTuple(DeclaredRecord record) {
         boolean namedTuple = true;
         for (Property property : record.getProperties()) {
@@ -1145,7 +1739,11 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
 
     private void loadVariable(String name) {
         CodeBlock block = block();
-        if (isField(name)) {
+        if (isField(name) && options.contains(CONSOLIDATE_CLOSURES)) {
+            block.aload(0);
+            block.pushInt(state().getFieldIndex(name));
+            block.aaload();
+        } else if (isField(name)) {
             block.aload(0);
             block.getfield(jiteClass().getClassName(), name, ci(Object.class));
         } else {
@@ -1170,7 +1768,86 @@ public class Compiler implements Generator, TypeGenerator, Reducer {
         }
     }
 
+    private Class<?> operatorOf(AstNode node) {
+        if (node instanceof Reference) {
+            Locator locator = ((Reference) node).getLocator();
+            if (locator instanceof DeclarationLocator && ((DeclarationLocator) locator).getKind() == EXPRESSION) {
+                return registry.classOf(locator.getName(), EXPRESSION);
+            }
+        }
+        return null;
+    }
+
+    private Class<?> primitiveOf(AstNode node) {
+        Type type = node.getType();
+        if (type.decompose().size() == 1) {
+            if (integerType().equals(type.expose())) {
+                return int.class;
+            } else if (doubleType().equals(type.expose())) {
+                return double.class;
+            }
+        }
+        return null;
+    }
+
     private ClassBuilder state() {
         return builders.peek();
     }
+
+    private AstNode uncurry(Function function, List<String> variables) {
+        variables.add(function.getVariable());
+        AstNode body = function.getBody();
+        FunctionClosure closure = curriedClosure(body, variables);
+        while (closure != null && variables.size() < maxArity) {
+            variables.add(closure.getVariable());
+            body = closure.getBody();
+            closure = curriedClosure(body, variables);
+        }
+        return body;
+    }
+
+    private String uncurriedClass(AstNode function, int arity) {
+        if (options.contains(UNCURRIED_APPLY) && arity > 1 && function instanceof Reference) {
+            Locator locator = ((Reference) function).getLocator();
+            if (locator instanceof DeclarationLocator && ((DeclarationLocator) locator).getKind() == EXPRESSION) {
+                return uncurriedClass((DeclarationLocator) locator, arity);
+            }
+        }
+        return null;
+    }
+
+    private String uncurriedClass(DeclarationLocator locator, int arity) {
+        Class<?> clazz = registry.classOf(locator.getName(), EXPRESSION);
+        if (clazz == null) {
+            NamedNode declaration = declarations.get(locator);
+            if (declaration instanceof DeclaredExpression) {
+                return uncurriedClass(((DeclaredExpression) declaration).getBody(), locator.getJavaName(), arity);
+            } else if (declaration instanceof DeclaredConstructor) {
+                return uncurriedClass(((DeclaredConstructor) declaration).getBody(), locator.getJavaName() + "Constructor", arity);
+            } else {
+                return null;
+            }
+        } else if (isPublic(clazz.getModifiers()) && hasInstance(clazz)) {
+            try {
+                Method method = clazz.getMethod("apply", params(Object.class, arity));
+                if (!isStatic(method.getModifiers()) && method.getReturnType() == Object.class) {
+                    return p(clazz);
+                }
+            } catch (NoSuchMethodException exception) {
+                // intentionally empty
+            }
+        }
+        return null;
+    }
+
+    private String uncurriedClass(AstNode body, String className, int arity) {
+        if (body instanceof Function) {
+            List<String> variables = new ArrayList<>();
+            uncurry((Function) body, variables);
+            if (variables.size() == arity) {
+                return className;
+            }
+        }
+        return null;
+    }
 }
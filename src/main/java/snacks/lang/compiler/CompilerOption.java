@@ -0,0 +1,31 @@
+package snacks.lang.compiler;
+
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum CompilerOption {
+
+    STATIC_APPLY,
+    UNCURRIED_APPLY,
+    UNBOXED_ARITHMETIC,
+    INTRINSIC_COMPARISONS,
+    FOLD_CONSTANTS,
+    TAIL_CALLS,
+    CONSOLIDATE_CLOSURES;
+
+    private static final Set<CompilerOption> defaults = unmodifiableSet(EnumSet.of(
+        STATIC_APPLY,
+        UNCURRIED_APPLY,
+        UNBOXED_ARITHMETIC,
+        INTRINSIC_COMPARISONS,
+        FOLD_CONSTANTS,
+        TAIL_CALLS,
+        CONSOLIDATE_CLOSURES
+    ));
+
+    public static Set<CompilerOption> defaultOptions() {
+        return defaults;
+    }
+}
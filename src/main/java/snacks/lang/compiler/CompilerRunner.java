@@ -0,0 +1,136 @@
+package snacks.lang.compiler;
+
+import static java.lang.System.out;
+import static java.nio.file.FileVisitResult.CONTINUE;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import snacks.lang.SnackDefinition;
+import snacks.lang.cli.CommandLineRunner;
+import snacks.lang.cli.RunnerException;
+import snacks.lang.runtime.CompilationCache;
+import snacks.lang.runtime.ModuleIndex;
+import snacks.lang.runtime.SnacksClassLoader;
+
+public class CompilerRunner implements CommandLineRunner {
+
+    private static final String SOURCE_EXTENSION = ".snack";
+
+    @Override
+    public String getCommand() {
+        return "compile";
+    }
+
+    @Override
+    public String getHelpText() {
+        return "Compiles snack modules ahead of time into a jar";
+    }
+
+    @Override
+    public void run(List<String> args) {
+        if (args.size() != 2) {
+            out.println("Usage: snacks compile <source root> <output jar>");
+        } else {
+            compile(new File(args.get(0)), new File(args.get(1)));
+        }
+    }
+
+    public void compile(File sourceRoot, File jar) {
+        try {
+            CompilationTimings timings = new CompilationTimings();
+            ModuleCollector collector = new ModuleCollector(sourceRoot, getClass().getClassLoader(), timings);
+            List<String> modules = findModules(sourceRoot);
+            new ParallelModuleCompiler(collector, timings).compile(modules);
+            writeJar(jar, modules, collector);
+            out.println("Compiled " + modules.size() + " module(s) into " + jar);
+            out.println("Timings: " + timings);
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new RunnerException(exception);
+        }
+    }
+
+    private List<String> findModules(final File sourceRoot) throws IOException {
+        final Path root = sourceRoot.toPath();
+        final List<String> modules = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (path.endsWith(SOURCE_EXTENSION)) {
+                    modules.add(path.substring(0, path.length() - SOURCE_EXTENSION.length()).replace('/', '.'));
+                }
+                return CONTINUE;
+            }
+        });
+        return modules;
+    }
+
+    private void writeJar(File jar, List<String> modules, ModuleCollector collector) throws IOException, ClassNotFoundException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+            for (String module : modules) {
+                ModuleIndex index = new ModuleIndex(module);
+                for (SnackDefinition definition : collector.getModule(module).getDefinitions()) {
+                    output.putNextEntry(new JarEntry(definition.getJavaName().replace('.', '/') + ".class"));
+                    output.write(definition.getBytes());
+                    output.closeEntry();
+                    index.add(collector.loadClass(definition.getJavaName()));
+                }
+                output.putNextEntry(new JarEntry(ModuleIndex.resourceFor(module)));
+                index.write(output);
+                output.closeEntry();
+            }
+        }
+    }
+
+    private static final class ModuleCollector extends SnacksClassLoader {
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final Map<String, CompilationCache.Entry> modules;
+        private final CompilationTimings timings;
+
+        public ModuleCollector(File sourceRoot, ClassLoader parent, CompilationTimings timings) throws MalformedURLException {
+            super(parent);
+            this.modules = new ConcurrentHashMap<>();
+            this.timings = timings;
+            addURL(sourceRoot.toURI().toURL());
+        }
+
+        public CompilationCache.Entry getModule(String module) {
+            if (!modules.containsKey(module)) {
+                throw new CompileException("Module " + module + " was not compiled from source");
+            }
+            return modules.get(module);
+        }
+
+        @Override
+        protected void moduleCompiled(String module, byte[] source, CompilationCache.Entry entry) {
+            modules.put(module, entry);
+        }
+
+        @Override
+        protected void phaseCompleted(String module, CompilationPhase phase, long nanos) {
+            timings.record(phase, nanos);
+        }
+    }
+}
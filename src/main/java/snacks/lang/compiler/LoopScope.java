@@ -1,8 +1,5 @@
 package snacks.lang.compiler;
 
-import static me.qmx.jitescript.util.CodegenUtils.p;
-import static me.qmx.jitescript.util.CodegenUtils.sig;
-
 import me.qmx.jitescript.CodeBlock;
 import org.objectweb.asm.tree.LabelNode;
 
@@ -34,14 +31,12 @@ final class LoopScope {
         block.aconst_null();
     }
 
+    public LabelNode getEnd() {
+        return end;
+    }
+
     public void next() {
         block.go_to(start);
         block.aconst_null();
     }
-
-    public void testCondition() {
-        block.ldc(true);
-        block.invokestatic(p(Boolean.class), "valueOf", sig(Boolean.class, boolean.class));
-        block.if_acmpne(end);
-    }
 }
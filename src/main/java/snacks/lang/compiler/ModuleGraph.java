@@ -0,0 +1,137 @@
+package snacks.lang.compiler;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.util.Collections.disjoint;
+import static org.apache.commons.lang.StringUtils.join;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import beaver.Symbol;
+import snacks.lang.parser.Parser;
+import snacks.lang.parser.Scanner;
+import snacks.lang.parser.syntax.FromImport;
+import snacks.lang.parser.syntax.Import;
+import snacks.lang.parser.syntax.Module;
+import snacks.lang.parser.syntax.QualifiedIdentifier;
+import snacks.lang.parser.syntax.WildcardImport;
+
+public class ModuleGraph {
+
+    public static Set<String> importsOf(Symbol tree) {
+        Set<String> importedModules = new LinkedHashSet<>();
+        if (tree instanceof Module) {
+            for (Symbol element : ((Module) tree).getElements()) {
+                if (element instanceof Import) {
+                    List<String> segments = ((QualifiedIdentifier) ((Import) element).getModule()).getSegments();
+                    importedModules.add(join(segments, '.'));
+                    importedModules.add(join(segments.subList(0, segments.size() - 1), '.'));
+                } else if (element instanceof FromImport) {
+                    importedModules.add(((FromImport) element).getModule().toString());
+                } else if (element instanceof WildcardImport) {
+                    importedModules.add(((WildcardImport) element).getModule().toString());
+                }
+            }
+        }
+        return importedModules;
+    }
+
+    private final Map<String, Set<String>> imports;
+
+    public ModuleGraph() {
+        this.imports = new ConcurrentSkipListMap<>();
+    }
+
+    public void addModule(String module, Collection<String> importedModules) {
+        imports.put(module, new LinkedHashSet<>(importedModules));
+    }
+
+    public void addSource(String module, String fileName, byte[] source) {
+        addModule(module, importsOf(new Parser().parse(new Scanner(fileName, UTF_8.decode(ByteBuffer.wrap(source))))));
+    }
+
+    public List<List<String>> getComponents() {
+        return new ComponentFinder().find();
+    }
+
+    public Set<String> getDependencies(String module) {
+        Set<String> dependencies = new LinkedHashSet<>();
+        for (String importedModule : imports.get(module)) {
+            if (imports.containsKey(importedModule) && !importedModule.equals(module)) {
+                dependencies.add(importedModule);
+            }
+        }
+        return dependencies;
+    }
+
+    public Set<String> getDependents(Collection<String> modules) {
+        Set<String> dependents = new LinkedHashSet<>(modules);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, Set<String>> entry : imports.entrySet()) {
+                if (!dependents.contains(entry.getKey()) && !disjoint(entry.getValue(), dependents)) {
+                    dependents.add(entry.getKey());
+                    changed = true;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    public Set<String> getModules() {
+        return imports.keySet();
+    }
+
+    private final class ComponentFinder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Map<String, Integer> lowLinks = new HashMap<>();
+        private final Deque<String> stack = new ArrayDeque<>();
+        private final Set<String> stacked = new LinkedHashSet<>();
+        private final List<List<String>> components = new ArrayList<>();
+
+        public List<List<String>> find() {
+            for (String module : imports.keySet()) {
+                if (!indexes.containsKey(module)) {
+                    visit(module);
+                }
+            }
+            return components;
+        }
+
+        private void visit(String module) {
+            int index = indexes.size();
+            indexes.put(module, index);
+            lowLinks.put(module, index);
+            stack.push(module);
+            stacked.add(module);
+            for (String dependency : getDependencies(module)) {
+                if (!indexes.containsKey(dependency)) {
+                    visit(dependency);
+                    lowLinks.put(module, Math.min(lowLinks.get(module), lowLinks.get(dependency)));
+                } else if (stacked.contains(dependency)) {
+                    lowLinks.put(module, Math.min(lowLinks.get(module), indexes.get(dependency)));
+                }
+            }
+            if (lowLinks.get(module) == index) {
+                List<String> component = new ArrayList<>();
+                String member;
+                do {
+                    member = stack.pop();
+                    stacked.remove(member);
+                    component.add(member);
+                } while (!member.equals(module));
+                components.add(component);
+            }
+        }
+    }
+}
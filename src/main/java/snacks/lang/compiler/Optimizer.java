@@ -0,0 +1,622 @@
+package snacks.lang.compiler;
+
+import static java.util.Arrays.asList;
+import static org.apache.commons.lang.reflect.MethodUtils.invokeMethod;
+import static org.apache.commons.lang.reflect.MethodUtils.invokeStaticMethod;
+import static snacks.lang.SnackKind.EXPRESSION;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import snacks.lang.And;
+import snacks.lang.Concat;
+import snacks.lang.Divide;
+import snacks.lang.Equals;
+import snacks.lang.Exponent;
+import snacks.lang.GreaterThan;
+import snacks.lang.GreaterThanEquals;
+import snacks.lang.LessThan;
+import snacks.lang.LessThanEquals;
+import snacks.lang.Minus;
+import snacks.lang.Modulo;
+import snacks.lang.Multiply;
+import snacks.lang.Negative;
+import snacks.lang.Not;
+import snacks.lang.NotEquals;
+import snacks.lang.Or;
+import snacks.lang.Plus;
+import snacks.lang.Positive;
+import snacks.lang.SnacksRegistry;
+import snacks.lang.SnacksString;
+import snacks.lang.ast.Access;
+import snacks.lang.ast.Apply;
+import snacks.lang.ast.Assign;
+import snacks.lang.ast.AstNode;
+import snacks.lang.ast.Begin;
+import snacks.lang.ast.BooleanConstant;
+import snacks.lang.ast.Break;
+import snacks.lang.ast.CharacterConstant;
+import snacks.lang.ast.Closure;
+import snacks.lang.ast.ClosureLocator;
+import snacks.lang.ast.Continue;
+import snacks.lang.ast.DeclarationLocator;
+import snacks.lang.ast.DeclaredConstant;
+import snacks.lang.ast.DeclaredConstructor;
+import snacks.lang.ast.DeclaredExpression;
+import snacks.lang.ast.DeclaredRecord;
+import snacks.lang.ast.DeclaredType;
+import snacks.lang.ast.DoubleConstant;
+import snacks.lang.ast.Embrace;
+import snacks.lang.ast.Exceptional;
+import snacks.lang.ast.ExpressionConstant;
+import snacks.lang.ast.Function;
+import snacks.lang.ast.FunctionClosure;
+import snacks.lang.ast.Generator;
+import snacks.lang.ast.GuardCase;
+import snacks.lang.ast.GuardCases;
+import snacks.lang.ast.Hurl;
+import snacks.lang.ast.Initializer;
+import snacks.lang.ast.IntegerConstant;
+import snacks.lang.ast.Locator;
+import snacks.lang.ast.LogicalAnd;
+import snacks.lang.ast.LogicalOr;
+import snacks.lang.ast.Loop;
+import snacks.lang.ast.MatchConstant;
+import snacks.lang.ast.MatchConstructor;
+import snacks.lang.ast.NamedNode;
+import snacks.lang.ast.Nop;
+import snacks.lang.ast.PatternCase;
+import snacks.lang.ast.PatternCases;
+import snacks.lang.ast.Reference;
+import snacks.lang.ast.ReferencesEqual;
+import snacks.lang.ast.Result;
+import snacks.lang.ast.Sequence;
+import snacks.lang.ast.StringConstant;
+import snacks.lang.ast.SymbolConstant;
+import snacks.lang.ast.TupleInitializer;
+import snacks.lang.ast.UnitConstant;
+import snacks.lang.ast.VariableDeclaration;
+import snacks.lang.ast.VariableLocator;
+import snacks.lang.ast.VoidFunction;
+
+public class Optimizer implements Generator {
+
+    private static final Set<Class<?>> pureOperators = new HashSet<Class<?>>(asList(
+        And.class,
+        Concat.class,
+        Divide.class,
+        Equals.class,
+        Exponent.class,
+        GreaterThan.class,
+        GreaterThanEquals.class,
+        LessThan.class,
+        LessThanEquals.class,
+        Minus.class,
+        Modulo.class,
+        Multiply.class,
+        Negative.class,
+        Not.class,
+        NotEquals.class,
+        Or.class,
+        Plus.class,
+        Positive.class,
+        SnacksString.Constructor.class
+    ));
+
+    private final SnacksRegistry registry;
+    private AstNode result;
+
+    public Optimizer(SnacksRegistry registry) {
+        this.registry = registry;
+    }
+
+    public List<NamedNode> optimize(Collection<NamedNode> declarations) {
+        List<NamedNode> optimized = new ArrayList<>();
+        for (NamedNode declaration : declarations) {
+            optimized.add((NamedNode) optimize(declaration));
+        }
+        return optimized;
+    }
+
+    @Override
+    public void generate(AstNode node) {
+        node.generate(this);
+    }
+
+    @Override
+    public void generateAccess(Access node) {
+        AstNode expression = optimize(node.getExpression());
+        if (expression == node.getExpression()) {
+            result = node;
+        } else {
+            result = positioned(new Access(expression, node.getProperty(), node.getType()), node);
+        }
+    }
+
+    @Override
+    public void generateApply(Apply node) {
+        AstNode function = optimize(node.getFunction());
+        AstNode argument = optimize(node.getArgument());
+        Apply apply = node;
+        if (function != node.getFunction() || argument != node.getArgument()) {
+            apply = positioned(new Apply(function, argument, node.getType()), node);
+        }
+        result = fold(apply);
+    }
+
+    @Override
+    public void generateAssign(Assign node) {
+        AstNode right = optimize(node.getRight());
+        if (right == node.getRight()) {
+            result = node;
+        } else {
+            result = positioned(new Assign(node.getLeft(), right), node);
+        }
+    }
+
+    @Override
+    public void generateBegin(Begin node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Begin(body), node);
+        }
+    }
+
+    @Override
+    public void generateBooleanConstant(BooleanConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateBreak(Break node) {
+        result = node;
+    }
+
+    @Override
+    public void generateCharacterConstant(CharacterConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateClosure(Closure node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Closure(node.getEnvironment(), body), node);
+        }
+    }
+
+    @Override
+    public void generateClosureLocator(ClosureLocator locator) {
+        throw new UnsupportedOperationException("Cannot optimize " + locator.getClass().getSimpleName() + " " + locator + " outside of its Reference");
+    }
+
+    @Override
+    public void generateContinue(Continue node) {
+        result = node;
+    }
+
+    @Override
+    public void generateDeclarationLocator(DeclarationLocator locator) {
+        throw new UnsupportedOperationException("Cannot optimize " + locator.getClass().getSimpleName() + " " + locator + " outside of its Reference");
+    }
+
+    @Override
+    public void generateDeclaredConstant(DeclaredConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateDeclaredConstructor(DeclaredConstructor node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new DeclaredConstructor(node.getQualifiedName(), body), node);
+        }
+    }
+
+    @Override
+    public void generateDeclaredExpression(DeclaredExpression node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            DeclaredExpression declaration = new DeclaredExpression(node.getQualifiedName(), body);
+            declaration.setOperator(node.getOperator());
+            if (!body.getType().equals(node.getType())) {
+                declaration.setType(node.getType());
+            }
+            result = positioned(declaration, node);
+        }
+    }
+
+    @Override
+    public void generateDeclaredRecord(DeclaredRecord node) {
+        result = node;
+    }
+
+    @Override
+    public void generateDeclaredType(DeclaredType node) {
+        result = node;
+    }
+
+    @Override
+    public void generateDoubleConstant(DoubleConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateEmbrace(Embrace node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Embrace(node.getVariable(), node.getException(), body), node);
+        }
+    }
+
+    @Override
+    public void generateExceptional(Exceptional node) {
+        AstNode begin = optimize(node.getBegin());
+        List<AstNode> embraces = optimize(node.getEmbraces());
+        AstNode ensure = node.getEnsure() == null ? null : optimize(node.getEnsure());
+        if (begin == node.getBegin() && embraces == node.getEmbraces() && ensure == node.getEnsure()) {
+            result = node;
+        } else {
+            result = positioned(new Exceptional(begin, embraces, ensure), node);
+        }
+    }
+
+    @Override
+    public void generateExpressionConstant(ExpressionConstant node) {
+        AstNode value = optimize(node.getValue());
+        if (value == node.getValue()) {
+            result = node;
+        } else {
+            result = positioned(new ExpressionConstant(value), node);
+        }
+    }
+
+    @Override
+    public void generateFunction(Function node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Function(node.getVariable(), body, node.getType()), node);
+        }
+    }
+
+    @Override
+    public void generateFunctionClosure(FunctionClosure node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new FunctionClosure(node.getVariable(), node.getEnvironment(), body, node.getType()), node);
+        }
+    }
+
+    @Override
+    public void generateGuardCase(GuardCase node) {
+        AstNode condition = optimize(node.getCondition());
+        AstNode expression = optimize(node.getExpression());
+        if (condition == node.getCondition() && expression == node.getExpression()) {
+            result = node;
+        } else {
+            result = positioned(new GuardCase(condition, expression), node);
+        }
+    }
+
+    @Override
+    public void generateGuardCases(GuardCases node) {
+        List<AstNode> cases = new ArrayList<>();
+        boolean changed = false;
+        for (AstNode c : node.getCases()) {
+            AstNode optimized = optimize(c);
+            changed |= optimized != c;
+            if (optimized instanceof GuardCase && ((GuardCase) optimized).getCondition() instanceof BooleanConstant) {
+                changed = true;
+                if (((BooleanConstant) ((GuardCase) optimized).getCondition()).getValue()) {
+                    cases.add(((GuardCase) optimized).getExpression());
+                    break;
+                }
+            } else {
+                cases.add(optimized);
+            }
+        }
+        if (cases.size() == 1 && !(cases.get(0) instanceof GuardCase)) {
+            result = cases.get(0);
+        } else if (changed && !cases.isEmpty()) {
+            result = positioned(new GuardCases(cases), node);
+        } else {
+            result = node;
+        }
+    }
+
+    @Override
+    public void generateHurl(Hurl node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Hurl(body), node);
+        }
+    }
+
+    @Override
+    public void generateInitializer(Initializer node) {
+        List<AstNode> arguments = optimize(node.getArguments());
+        if (arguments == node.getArguments()) {
+            result = node;
+        } else {
+            result = positioned(new Initializer(node.getConstructor(), arguments), node);
+        }
+    }
+
+    @Override
+    public void generateIntegerConstant(IntegerConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateLogicalAnd(LogicalAnd node) {
+        AstNode left = optimize(node.getLeft());
+        AstNode right = optimize(node.getRight());
+        if (left instanceof BooleanConstant) {
+            result = ((BooleanConstant) left).getValue() ? right : left;
+        } else if (right instanceof BooleanConstant && ((BooleanConstant) right).getValue()) {
+            result = left;
+        } else if (left == node.getLeft() && right == node.getRight()) {
+            result = node;
+        } else {
+            result = positioned(new LogicalAnd(left, right), node);
+        }
+    }
+
+    @Override
+    public void generateLogicalOr(LogicalOr node) {
+        AstNode left = optimize(node.getLeft());
+        AstNode right = optimize(node.getRight());
+        if (left instanceof BooleanConstant) {
+            result = ((BooleanConstant) left).getValue() ? left : right;
+        } else if (right instanceof BooleanConstant && !((BooleanConstant) right).getValue()) {
+            result = left;
+        } else if (left == node.getLeft() && right == node.getRight()) {
+            result = node;
+        } else {
+            result = positioned(new LogicalOr(left, right), node);
+        }
+    }
+
+    @Override
+    public void generateLoop(Loop node) {
+        AstNode condition = optimize(node.getCondition());
+        AstNode body = optimize(node.getBody());
+        if (condition == node.getCondition() && body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new Loop(condition, body), node);
+        }
+    }
+
+    @Override
+    public void generateMatchConstant(MatchConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateMatchConstructor(MatchConstructor node) {
+        result = node;
+    }
+
+    @Override
+    public void generateNop(Nop node) {
+        result = node;
+    }
+
+    @Override
+    public void generatePatternCase(PatternCase node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new PatternCase(node.getMatchers(), body), node);
+        }
+    }
+
+    @Override
+    public void generatePatternCases(PatternCases node) {
+        List<PatternCase> patterns = new ArrayList<>();
+        boolean changed = false;
+        for (PatternCase pattern : node.getPatterns()) {
+            PatternCase optimized = (PatternCase) optimize(pattern);
+            changed |= optimized != pattern;
+            patterns.add(optimized);
+        }
+        if (changed) {
+            result = positioned(new PatternCases(node.getType(), patterns), node);
+        } else {
+            result = node;
+        }
+    }
+
+    @Override
+    public void generateReference(Reference node) {
+        result = node;
+    }
+
+    @Override
+    public void generateReferencesEqual(ReferencesEqual node) {
+        AstNode left = optimize(node.getLeft());
+        AstNode right = optimize(node.getRight());
+        if (left == node.getLeft() && right == node.getRight()) {
+            result = node;
+        } else {
+            result = positioned(new ReferencesEqual(left, right), node);
+        }
+    }
+
+    @Override
+    public void generateResult(Result node) {
+        AstNode value = optimize(node.getValue());
+        if (value == node.getValue()) {
+            result = node;
+        } else {
+            result = positioned(new Result(value), node);
+        }
+    }
+
+    @Override
+    public void generateSequence(Sequence node) {
+        List<AstNode> elements = optimize(node.getElements());
+        if (elements == node.getElements()) {
+            result = node;
+        } else {
+            result = positioned(new Sequence(elements), node);
+        }
+    }
+
+    @Override
+    public void generateStringConstant(StringConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateSymbol(SymbolConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateTupleInitializer(TupleInitializer node) {
+        List<AstNode> elements = optimize(node.getElements());
+        if (elements == node.getElements()) {
+            result = node;
+        } else {
+            result = positioned(new TupleInitializer(elements), node);
+        }
+    }
+
+    @Override
+    public void generateUnitConstant(UnitConstant node) {
+        result = node;
+    }
+
+    @Override
+    public void generateVariableDeclaration(VariableDeclaration node) {
+        result = node;
+    }
+
+    @Override
+    public void generateVariableLocator(VariableLocator locator) {
+        throw new UnsupportedOperationException("Cannot optimize " + locator.getClass().getSimpleName() + " " + locator + " outside of its Reference");
+    }
+
+    @Override
+    public void generateVoidFunction(VoidFunction node) {
+        AstNode body = optimize(node.getBody());
+        if (body == node.getBody()) {
+            result = node;
+        } else {
+            result = positioned(new VoidFunction(body), node);
+        }
+    }
+
+    private AstNode constant(Object value) {
+        if (value instanceof Integer) {
+            return new IntegerConstant((Integer) value);
+        } else if (value instanceof Double) {
+            return new DoubleConstant((Double) value);
+        } else if (value instanceof Boolean) {
+            return new BooleanConstant((Boolean) value);
+        } else if (value instanceof String) {
+            return new StringConstant((String) value);
+        } else if (value instanceof Character) {
+            return new CharacterConstant((Character) value);
+        } else {
+            return null;
+        }
+    }
+
+    private AstNode fold(Apply node) {
+        List<Object> arguments = new ArrayList<>();
+        AstNode function = node;
+        while (function instanceof Apply) {
+            Object argument = valueOf(((Apply) function).getArgument());
+            if (argument == null) {
+                return node;
+            }
+            arguments.add(0, argument);
+            function = ((Apply) function).getFunction();
+        }
+        Class<?> operator = operatorOf(function);
+        if (operator != null && pureOperators.contains(operator)) {
+            try {
+                Object value = invokeStaticMethod(operator, "instance", new Object[0]);
+                for (Object argument : arguments) {
+                    value = invokeMethod(value, "apply", argument);
+                }
+                AstNode constant = constant(value);
+                if (constant != null) {
+                    return positioned(constant, node);
+                }
+            } catch (ReflectiveOperationException exception) {
+                // leave failing applications to fail at runtime
+            }
+        }
+        return node;
+    }
+
+    private AstNode optimize(AstNode node) {
+        generate(node);
+        return result;
+    }
+
+    private List<AstNode> optimize(List<AstNode> nodes) {
+        List<AstNode> optimized = new ArrayList<>();
+        boolean changed = false;
+        for (AstNode node : nodes) {
+            AstNode element = optimize(node);
+            changed |= element != node;
+            optimized.add(element);
+        }
+        return changed ? optimized : nodes;
+    }
+
+    private Class<?> operatorOf(AstNode node) {
+        if (node instanceof Reference) {
+            Locator locator = ((Reference) node).getLocator();
+            if (locator instanceof DeclarationLocator && ((DeclarationLocator) locator).getKind() == EXPRESSION) {
+                return registry.classOf(locator.getName(), EXPRESSION);
+            }
+        }
+        return null;
+    }
+
+    private <T extends AstNode> T positioned(T node, AstNode original) {
+        node.setPosition(original.getPosition());
+        return node;
+    }
+
+    private Object valueOf(AstNode node) {
+        if (node instanceof IntegerConstant) {
+            return ((IntegerConstant) node).getValue();
+        } else if (node instanceof DoubleConstant) {
+            return ((DoubleConstant) node).getValue();
+        } else if (node instanceof BooleanConstant) {
+            return ((BooleanConstant) node).getValue();
+        } else if (node instanceof StringConstant) {
+            return ((StringConstant) node).getValue();
+        } else if (node instanceof CharacterConstant) {
+            return ((CharacterConstant) node).getValue();
+        } else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package snacks.lang.compiler;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.util.Collections.newSetFromMap;
+import static snacks.lang.compiler.CompilationPhase.PARSE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import beaver.Symbol;
+import com.google.common.io.ByteStreams;
+import snacks.lang.parser.Parser;
+import snacks.lang.parser.Scanner;
+import snacks.lang.runtime.SnacksClassLoader;
+
+public class ParallelModuleCompiler {
+
+    private static final String SOURCE_EXTENSION = ".snack";
+
+    private final SnacksClassLoader loader;
+    private final CompilationTimings timings;
+    private final int parallelism;
+    private final Set<String> parsedModules;
+    private final ConcurrentMap<String, Symbol> trees;
+
+    public ParallelModuleCompiler(SnacksClassLoader loader, CompilationTimings timings) {
+        this(loader, timings, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelModuleCompiler(SnacksClassLoader loader, CompilationTimings timings, int parallelism) {
+        this.loader = loader;
+        this.timings = timings;
+        this.parallelism = parallelism;
+        this.parsedModules = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        this.trees = new ConcurrentHashMap<>();
+    }
+
+    public ModuleGraph compile(Collection<String> modules) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ModuleGraph graph = new ModuleGraph();
+            pool.invoke(new ParseTask(graph, new ArrayList<>(modules)));
+            pool.invoke(new GraphTask(graph));
+            return graph;
+        } finally {
+            pool.shutdown();
+            parsedModules.clear();
+            trees.clear();
+            timings.recordElapsed(System.nanoTime() - start);
+        }
+    }
+
+    private final class ComponentTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -567743345824317013L;
+
+        private final List<String> modules;
+        private final List<ComponentTask> dependencies;
+
+        public ComponentTask(List<String> modules) {
+            this.modules = modules;
+            this.dependencies = new ArrayList<>();
+        }
+
+        @Override
+        protected void compute() {
+            for (ComponentTask dependency : dependencies) {
+                dependency.join();
+            }
+            for (String module : modules) {
+                loader.loadModule(module, trees.remove(module));
+            }
+        }
+    }
+
+    private final class GraphTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -1531953561255975467L;
+
+        private final ModuleGraph graph;
+
+        public GraphTask(ModuleGraph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        protected void compute() {
+            Map<String, ComponentTask> tasks = new HashMap<>();
+            List<ComponentTask> components = new ArrayList<>();
+            for (List<String> component : graph.getComponents()) {
+                ComponentTask task = new ComponentTask(component);
+                for (String module : component) {
+                    tasks.put(module, task);
+                }
+                for (String module : component) {
+                    for (String dependency : graph.getDependencies(module)) {
+                        ComponentTask dependencyTask = tasks.get(dependency);
+                        if (dependencyTask != task && !task.dependencies.contains(dependencyTask)) {
+                            task.dependencies.add(dependencyTask);
+                        }
+                    }
+                }
+                components.add(task);
+                task.fork();
+            }
+            for (ComponentTask task : components) {
+                task.join();
+            }
+        }
+    }
+
+    private final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -9115392408176111459L;
+
+        private final ModuleGraph graph;
+        private final List<String> modules;
+
+        public ParseTask(ModuleGraph graph, List<String> modules) {
+            this.graph = graph;
+            this.modules = modules;
+        }
+
+        @Override
+        protected void compute() {
+            if (modules.size() == 1) {
+                parse(modules.get(0));
+            } else if (modules.size() > 1) {
+                int middle = modules.size() / 2;
+                invokeAll(
+                    new ParseTask(graph, modules.subList(0, middle)),
+                    new ParseTask(graph, modules.subList(middle, modules.size()))
+                );
+            }
+        }
+
+        private void parse(String module) {
+            URL url = loader.getResource(module.replace('.', '/') + SOURCE_EXTENSION);
+            if (url == null || !parsedModules.add(module)) {
+                return;
+            }
+            long start = System.nanoTime();
+            Symbol tree;
+            try (InputStream stream = url.openStream()) {
+                tree = new Parser().parse(new Scanner(url.getFile(), UTF_8.decode(ByteBuffer.wrap(ByteStreams.toByteArray(stream)))));
+            } catch (IOException exception) {
+                throw new CompileException(exception);
+            } finally {
+                timings.record(PARSE, System.nanoTime() - start);
+            }
+            List<String> importedModules = new ArrayList<>(ModuleGraph.importsOf(tree));
+            trees.put(module, tree);
+            graph.addModule(module, importedModules);
+            new ParseTask(graph, importedModules).invoke();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package snacks.lang.compiler;
+
+import java.util.List;
+import java.util.Set;
+import me.qmx.jitescript.CodeBlock;
+import org.objectweb.asm.tree.LabelNode;
+import snacks.lang.ast.AstNode;
+
+final class TailCallScope {
+
+    private final CodeBlock block;
+    private final List<Integer> variables;
+    private final Set<AstNode> calls;
+    private final LabelNode start;
+
+    public TailCallScope(CodeBlock block, List<Integer> variables, Set<AstNode> calls) {
+        this.block = block;
+        this.variables = variables;
+        this.calls = calls;
+        this.start = new LabelNode();
+    }
+
+    public void begin() {
+        block.label(start);
+    }
+
+    public boolean isTailCall(AstNode node) {
+        return calls.contains(node);
+    }
+
+    public void recur() {
+        for (int i = variables.size() - 1; i >= 0; i--) {
+            block.astore(variables.get(i));
+        }
+        block.go_to(start);
+    }
+}
@@ -0,0 +1,169 @@
+package snacks.lang.parser;
+
+import static java.util.Arrays.binarySearch;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import beaver.Symbol;
+import snacks.lang.parser.syntax.Module;
+import snacks.lang.util.LineMap;
+
+public class IncrementalParser {
+
+    private final String source;
+    private char[] data;
+    private LineMap lines;
+    private Module module;
+    private int[] starts;
+    private List<Symbol> changedElements;
+    private List<Symbol> removedElements;
+
+    public IncrementalParser(String source, CharSequence input) {
+        this.source = source;
+        this.data = input.toString().toCharArray();
+        this.lines = new LineMap(source, data, 0, data.length);
+        this.module = new Module();
+        reparseAll();
+    }
+
+    public Module edit(int offset, int length, CharSequence replacement) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("Edit " + offset + "+" + length + " outside of " + data.length + " characters");
+        }
+        int delta = replacement.length() - length;
+        char[] edited = new char[data.length + delta];
+        System.arraycopy(data, 0, edited, 0, offset);
+        replacement.toString().getChars(0, replacement.length(), edited, offset);
+        System.arraycopy(data, offset + length, edited, offset + replacement.length(), data.length - offset - length);
+        data = edited;
+        lines = new LineMap(source, data, 0, data.length);
+        if (starts == null || starts.length == 0) {
+            reparseAll();
+        } else {
+            reparse(offset, length, delta);
+        }
+        return module;
+    }
+
+    public List<Symbol> getChangedElements() {
+        return changedElements;
+    }
+
+    public int getElementOffset(int element) {
+        return starts[element];
+    }
+
+    public Module getModule() {
+        return module;
+    }
+
+    public List<Symbol> getRemovedElements() {
+        return removedElements;
+    }
+
+    public String getText() {
+        return new String(data);
+    }
+
+    private int elementAt(int offset) {
+        int index = binarySearch(starts, offset);
+        return index < 0 ? Math.max(0, -index - 2) : index;
+    }
+
+    private Module parse(int begin, int end, boolean quiet) {
+        EditParser parser = new EditParser(quiet);
+        Symbol tree = parser.parse(new Scanner(lines, CharBuffer.wrap(data, begin, end - begin)));
+        if (tree instanceof Module && !parser.hasErrors()) {
+            return (Module) tree;
+        } else {
+            throw new ParseException("Could not parse " + begin + "-" + end + " of '" + source + "'");
+        }
+    }
+
+    private void reparse(int offset, int length, int delta) {
+        List<Symbol> elements = module.getElements();
+        int first = Math.max(0, elementAt(offset) - 1);
+        int last = Math.min(elements.size() - 1, elementAt(offset + length) + 1);
+        int begin = first == 0 ? 0 : starts[first];
+        int end = last + 1 == elements.size() ? data.length : starts[last + 1] + delta;
+        Module region;
+        try {
+            region = parse(begin, end, true);
+        } catch (ParseException exception) {
+            reparseAll();
+            return;
+        }
+        List<Symbol> oldElements = elements.subList(first, last + 1);
+        List<Symbol> newElements = reuse(oldElements, region.getElements());
+        List<Symbol> allElements = new ArrayList<>(elements.subList(0, first));
+        allElements.addAll(newElements);
+        allElements.addAll(elements.subList(last + 1, elements.size()));
+        int[] allStarts = new int[allElements.size()];
+        System.arraycopy(starts, 0, allStarts, 0, first);
+        for (int i = 0; i < newElements.size(); i++) {
+            allStarts[first + i] = region.getElements().get(i).getStart();
+        }
+        for (int i = last + 1; i < starts.length; i++) {
+            allStarts[i - last - 1 + first + newElements.size()] = starts[i] + delta;
+        }
+        update(allElements, allStarts);
+    }
+
+    private void reparseAll() {
+        Module tree;
+        try {
+            tree = parse(0, data.length, false);
+        } catch (ParseException exception) {
+            starts = null;
+            changedElements = emptyList();
+            removedElements = emptyList();
+            throw exception;
+        }
+        List<Symbol> newElements = reuse(module.getElements(), tree.getElements());
+        int[] newStarts = new int[newElements.size()];
+        for (int i = 0; i < newStarts.length; i++) {
+            newStarts[i] = tree.getElements().get(i).getStart();
+        }
+        update(newElements, newStarts);
+    }
+
+    private List<Symbol> reuse(List<Symbol> oldElements, List<Symbol> newElements) {
+        List<Symbol> reusedElements = new ArrayList<>();
+        List<Symbol> changed = new ArrayList<>();
+        List<Symbol> removed = new ArrayList<>(oldElements);
+        for (Symbol element : newElements) {
+            int index = removed.indexOf(element);
+            if (index == -1) {
+                reusedElements.add(element);
+                changed.add(element);
+            } else {
+                reusedElements.add(removed.remove(index));
+            }
+        }
+        changedElements = unmodifiableList(changed);
+        removedElements = unmodifiableList(removed);
+        return reusedElements;
+    }
+
+    private void update(List<Symbol> elements, int[] elementStarts) {
+        module = new Module(elements.toArray(new Symbol[elements.size()]));
+        starts = elementStarts;
+    }
+
+    private static final class EditParser extends Parser {
+
+        private final ParserEvents events;
+
+        public EditParser(boolean quiet) {
+            events = new ParserEvents(quiet);
+            report = events;
+        }
+
+        public boolean hasErrors() {
+            return events.getErrors() > 0;
+        }
+    }
+}
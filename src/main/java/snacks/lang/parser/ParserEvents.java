@@ -1,7 +1,5 @@
 package snacks.lang.parser;
 
-import static beaver.Symbol.getColumn;
-import static beaver.Symbol.getLine;
 import static java.util.logging.Logger.getLogger;
 import static org.apache.commons.lang.StringEscapeUtils.escapeJava;
 import static snacks.lang.parser.Terminals.NAMES;
@@ -9,13 +7,31 @@ import static snacks.lang.parser.Terminals.NAMES;
 import java.util.logging.Logger;
 import beaver.Parser.Events;
 import beaver.Symbol;
+import snacks.lang.util.LineMap;
+import snacks.lang.util.Position;
 
 class ParserEvents extends Events {
 
     private final Logger logger;
+    private final boolean quiet;
+    private LineMap lines;
+    private int errors;
 
     public ParserEvents() {
-        logger = getLogger("SYNTAX");
+        this(false);
+    }
+
+    public ParserEvents(boolean quiet) {
+        this.logger = getLogger("SYNTAX");
+        this.quiet = quiet;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public void setLineMap(LineMap lines) {
+        this.lines = lines;
     }
 
     @Override
@@ -45,6 +61,10 @@ class ParserEvents extends Events {
 
     private void report(Symbol symbol, String message) {
         String value;
+        errors++;
+        if (quiet) {
+            return;
+        }
         if (symbol.value != null) {
             value = '"' + escapeJava(symbol.value.toString()) + "\" ";
         } else {
@@ -57,8 +77,10 @@ class ParserEvents extends Events {
         if (symbol instanceof Token) {
             Token token = (Token) symbol;
             return token.getPosition().toString();
+        } else if (lines != null) {
+            return new Position(lines, symbol.getStart(), symbol.getEnd()).toString();
         } else {
-            return "(" + (getLine(symbol.getStart()) + 1) + "," + (getColumn(symbol.getStart()) + 1) + ")";
+            return "(offset " + symbol.getStart() + ")";
         }
     }
 
@@ -1,120 +1,163 @@
 package snacks.lang.parser;
 
+import snacks.lang.util.LineMap;
 import snacks.lang.util.Position;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.regex.Pattern;
 
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOf;
 import static org.apache.commons.lang.StringEscapeUtils.escapeJava;
 import static org.apache.commons.lang.StringEscapeUtils.unescapeJava;
 import static snacks.lang.parser.Terminals.*;
 
-public class Scanner extends beaver.Scanner implements AutoCloseable {
+public class Scanner extends beaver.Scanner {
 
     public static final int INITIAL_BUFFER_SIZE = 1024;
-    public static final int READ_BUFFER_SIZE = 1024;
     private static final Charset UTF_8 = Charset.forName("UTF-8");
-    private static final Pattern symbolPattern = Pattern.compile("^[\\W]+$");
-    private static final Set<String> newlineWords = new HashSet<>();
-    private static final Map<String, Short> dictionary = new HashMap<>();
+    private static final short NO_KIND = -1;
+    private static final byte LETTER_CHAR = 1;
+    private static final byte DIGIT_CHAR = 2;
+    private static final byte SYMBOL_CHAR = 3;
+    private static final byte[] asciiClasses = new byte[128];
+    private static final WordTable keywords = new WordTable(64);
 
     static {
-        newlineWords.addAll(asList(
-            "begin",
-            "ensure",
-            "->",
-            "=>",
-            "=",
-            "else",
-            "where",
-            "derives"
-        ));
+        for (char c = 'A'; c <= 'Z'; c++) {
+            asciiClasses[c] = LETTER_CHAR;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            asciiClasses[c] = LETTER_CHAR;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            asciiClasses[c] = DIGIT_CHAR;
+        }
+        for (char c : "~!$%^&*-=+/?<>".toCharArray()) {
+            asciiClasses[c] = SYMBOL_CHAR;
+        }
+        asciiClasses['_'] = LETTER_CHAR;
     }
 
     static {
-        dictionary.put("True", TRUE);
-        dictionary.put("False", FALSE);
-        dictionary.put("as", AS);
-        dictionary.put("begin", BEGIN);
-        dictionary.put("break", BREAK);
-        dictionary.put("continue", CONTINUE);
-        dictionary.put("data", DATA);
-        dictionary.put("else", ELSE);
-        dictionary.put("if", IF);
-        dictionary.put("unless", UNLESS);
-        dictionary.put("embrace", EMBRACE);
-        dictionary.put("end", END);
-        dictionary.put("ensure", ENSURE);
-        dictionary.put("for", FOR);
-        dictionary.put("from", FROM);
-        dictionary.put("hurl", HURL);
-        dictionary.put("import", IMPORT);
-        dictionary.put("return", RETURN);
-        dictionary.put("until", UNTIL);
-        dictionary.put("use", USE);
-        dictionary.put("var", VAR);
-        dictionary.put("while", WHILE);
-        dictionary.put("->", APPLIES_TO);
-        dictionary.put("=>", GOES_TO);
-        dictionary.put("_", THROWAWAY);
-        dictionary.put("=", ASSIGN);
-        dictionary.put("affix", null);
-        dictionary.put("infix", null);
-        dictionary.put("is", IDENTIFIER);
-        dictionary.put("not", IDENTIFIER);
-        dictionary.put("protocol", PROTOCOL);
-        dictionary.put("implement", IMPLEMENT);
-        dictionary.put("derives", DERIVES);
-        dictionary.put("where", WHERE);
+        keywords.add("True", TRUE);
+        keywords.add("False", FALSE);
+        keywords.add("as", AS);
+        keywords.add("begin", BEGIN);
+        keywords.add("break", BREAK);
+        keywords.add("continue", CONTINUE);
+        keywords.add("data", DATA);
+        keywords.add("else", ELSE);
+        keywords.add("if", IF);
+        keywords.add("unless", UNLESS);
+        keywords.add("embrace", EMBRACE);
+        keywords.add("end", END);
+        keywords.add("ensure", ENSURE);
+        keywords.add("for", FOR);
+        keywords.add("from", FROM);
+        keywords.add("hurl", HURL);
+        keywords.add("import", IMPORT);
+        keywords.add("return", RETURN);
+        keywords.add("until", UNTIL);
+        keywords.add("use", USE);
+        keywords.add("var", VAR);
+        keywords.add("while", WHILE);
+        keywords.add("->", APPLIES_TO);
+        keywords.add("=>", GOES_TO);
+        keywords.add("_", THROWAWAY);
+        keywords.add("=", ASSIGN);
+        keywords.add("affix", NO_KIND);
+        keywords.add("infix", NO_KIND);
+        keywords.add("is", IDENTIFIER);
+        keywords.add("not", IDENTIFIER);
+        keywords.add("protocol", PROTOCOL);
+        keywords.add("implement", IMPLEMENT);
+        keywords.add("derives", DERIVES);
+        keywords.add("where", WHERE);
+    }
+
+    public static Scanner mapFile(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            return new Scanner(file.getPath(), UTF_8.decode(channel.map(READ_ONLY, 0, channel.size())));
+        } catch (IOException exception) {
+            throw new ParseException(exception);
+        }
+    }
+
+    private static CharBuffer readFully(InputStream stream) {
+        try (Reader reader = new InputStreamReader(stream, UTF_8)) {
+            char[] data = new char[INITIAL_BUFFER_SIZE];
+            int length = 0;
+            int numRead;
+            while ((numRead = reader.read(data, length, data.length - length)) != -1) {
+                length += numRead;
+                if (length == data.length) {
+                    data = copyOf(data, data.length * 2);
+                }
+            }
+            return CharBuffer.wrap(data, 0, length);
+        } catch (IOException exception) {
+            throw new ParseException(exception);
+        }
     }
 
     private final Deque<BraceCounter> braces;
-    private final Reader reader;
-    private final String source;
     private final Deque<State> states;
     private final StringBuilder string;
-    private char[] data;
+    private final char[] data;
+    private final int length;
+    private final LineMap lines;
+    private final WordTable names;
     private int position;
-    private int length;
-    private int line;
-    private int column;
     private int start;
-    private Position startPosition;
+    private int startOffset;
     private Token token;
     private Action action;
 
     public Scanner(String source, InputStream stream) {
-        this.source = source;
+        this(source, readFully(stream));
+    }
+
+    public Scanner(String source, CharSequence input) {
+        this(source, input, null);
+    }
+
+    public Scanner(LineMap lines, CharSequence input) {
+        this(lines.getSource(), input, lines);
+    }
+
+    private Scanner(String source, CharSequence input, LineMap lines) {
         this.braces = new ArrayDeque<>(asList(new BraceCounter(State.DEFAULT)));
-        this.reader = new InputStreamReader(stream, UTF_8);
         this.states = new ArrayDeque<>(asList(State.DEFAULT));
         this.string = new StringBuilder();
-        this.data = new char[INITIAL_BUFFER_SIZE];
+        if (input instanceof CharBuffer && ((CharBuffer) input).hasArray()) {
+            CharBuffer buffer = (CharBuffer) input;
+            this.data = buffer.array();
+            this.position = buffer.arrayOffset() + buffer.position();
+            this.length = buffer.arrayOffset() + buffer.limit();
+        } else {
+            this.data = input.toString().toCharArray();
+            this.length = data.length;
+        }
+        this.lines = lines == null ? new LineMap(source, data, position, length) : lines;
+        this.names = new WordTable(256);
     }
 
-    @Override
-    public void close() {
-        try {
-            reader.close();
-        } catch (IOException exception) {
-            // intentionally empty
-        }
+    public LineMap getLineMap() {
+        return lines;
     }
 
     public int lookAhead(int offset) {
-        buffer();
         if (position + offset >= length) {
             return -1;
         } else {
@@ -123,9 +166,9 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     }
 
     public Token nextToken() {
-        startPosition = markStartPosition();
+        startOffset = position;
         if (peek() == -1) {
-            return new Token(EOF, currentPosition());
+            return new Token(EOF, lines, position, position);
         }
         while (true) {
             token = null;
@@ -192,7 +235,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     }
 
     private Action accept(short kind, Object value) {
-        token = new Token(kind, value, new Position(startPosition, line, column));
+        token = new Token(kind, value, lines, startOffset, position);
         return Action.ACCEPT;
     }
 
@@ -213,30 +256,8 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         braces.peek().bracesUp();
     }
 
-    private void buffer(int offset) {
-        if (position + offset >= length) {
-            int numRead;
-            int position = 0;
-            if (position + READ_BUFFER_SIZE > data.length) {
-                data = copyOf(data, data.length * 2);
-            }
-            try {
-                numRead = reader.read(data, position, READ_BUFFER_SIZE);
-            } catch (IOException exception) {
-                throw new ParseException(exception);
-            }
-            if (numRead != -1) {
-                length += numRead;
-            }
-        }
-    }
-
-    private void buffer() {
-        buffer(0);
-    }
-
     private Position currentPosition() {
-        return new Position(source, line, column);
+        return new Position(lines, position);
     }
 
     private Action detectFunctionMultiline() {
@@ -380,12 +401,18 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     }
 
     private boolean isIdentifier(int c) {
-        return isLetter(c) || isIdentifierDigit(c) || isSymbol(c);
+        if (c >= 0 && c < asciiClasses.length) {
+            return asciiClasses[c] != 0;
+        } else {
+            return isLetter(c) || isIdentifierDigit(c);
+        }
     }
 
     private boolean isIdentifierDigit(int c) {
-        return isDigit(c)
-            || c >= '\u0660' && c <= '\u0669'
+        if (c >= 0 && c < asciiClasses.length) {
+            return asciiClasses[c] == DIGIT_CHAR;
+        }
+        return c >= '\u0660' && c <= '\u0669'
             || c >= '\u06F0' && c <= '\u06F9'
             || c >= '\u0966' && c <= '\u096F'
             || c >= '\u09E6' && c <= '\u09EF'
@@ -402,10 +429,10 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     }
 
     private boolean isLetter(int c) {
-        return c >= 'A' && c <= 'Z'
-            || c >= 'a' && c <= 'z'
-            || c == '_'
-            || c >= '\u00C0' && c <= '\u00D6'
+        if (c >= 0 && c < asciiClasses.length) {
+            return asciiClasses[c] == LETTER_CHAR;
+        }
+        return c >= '\u00C0' && c <= '\u00D6'
             || c >= '\u00D8' && c <= '\u00F6'
             || c >= '\u00F8' && c <= '\u1FFF'
             || c >= '\u2200' && c <= '\u22FF'
@@ -430,21 +457,29 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         return isIdentifier(c) || c == '[' || c == ']' || c == '.';
     }
 
-    private boolean isSymbol(int c) {
-        return c == '~'
-            || c == '!'
-            || c == '$'
-            || c == '%'
-            || c == '^'
-            || c == '&'
-            || c == '*'
-            || c == '-'
-            || c == '='
-            || c == '+'
-            || c == '/'
-            || c == '?'
-            || c == '<'
-            || c == '>';
+    private boolean isNewlineWord(short kind) {
+        switch (kind) {
+            case BEGIN:
+            case ENSURE:
+            case APPLIES_TO:
+            case GOES_TO:
+            case ASSIGN:
+            case ELSE:
+            case WHERE:
+            case DERIVES:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isSymbolic() {
+        for (int i = start; i < position; i++) {
+            if (data[i] < asciiClasses.length && (asciiClasses[data[i]] == LETTER_CHAR || asciiClasses[data[i]] == DIGIT_CHAR)) {
+                return false;
+            }
+        }
+        return position > start;
     }
 
     private boolean isWhitespace(int c) {
@@ -459,10 +494,6 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         states.pop();
     }
 
-    private Position markStartPosition() {
-        return new Position(source, line, column);
-    }
-
     private void octalToHex() {
         string.append(octalToHex(text()));
     }
@@ -472,7 +503,6 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     }
 
     private int peek() {
-        buffer();
         return position < length ? data[position] : -1;
     }
 
@@ -485,6 +515,10 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         }
     }
 
+    private String name() {
+        return names.intern(data, start, position);
+    }
+
     private Action rawString() {
         String value = string.toString();
         string.setLength(0);
@@ -499,12 +533,6 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
 
     private void read() {
         if (position <= length) {
-            if (peek() == '\n') {
-                line++;
-                column = 0;
-            } else {
-                column++;
-            }
             position++;
         } else {
             throw new ParseException("Read past EOF in " + currentPosition());
@@ -741,7 +769,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
                     if (peek() == '.') {
                         read();
                     }
-                    return accept(IDENTIFIER, text());
+                    return accept(IDENTIFIER, name());
                 } else {
                     detectNewlines();
                     return accept(DOT);
@@ -947,14 +975,14 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         } else {
             read();
         }
-        string.append(text());
+        string.append(data, start, position - start);
         return keepGoing();
     }
 
     private Action scanIdentifier() {
         if (isPrefix(peek()) && (isLetter(lookAhead(1)) || isIdentifierDigit(lookAhead(1)) || isOpeningSeparator(lookAhead(1)))) {
             read();
-            return accept(IDENTIFIER, text());
+            return accept(IDENTIFIER, name());
         }
         while (isIdentifier(peek())) {
             read();
@@ -962,8 +990,10 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         while (peek() == '\'') {
             read();
         }
-        String text = text();
-        if (dictionary.containsKey(text)) {
+        int keyword = keywords.find(data, start, position);
+        if (keyword != -1) {
+            String text = keywords.getWord(keyword);
+            short kind = keywords.getKind(keyword);
             switch (text) {
                 case "is":
                     if (peek() == ' ' && expect("not")) {
@@ -1016,20 +1046,23 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
                     enterState(State.EMBRACE);
                     break;
             }
-            if (newlineWords.contains(text)) {
+            if (kind == NO_KIND) {
+                return error();
+            }
+            if (isNewlineWord(kind)) {
                 detectNewlines();
             }
-            if (dictionary.get(text) == DATA) {
+            if (kind == DATA) {
                 enterState(State.DATA_DECLARATION);
             }
-            return accept(dictionary.get(text));
+            return accept(kind, position - start == text.length() ? text : text());
         }
-        if (symbolPattern.matcher(text).find()) {
+        if (isSymbolic()) {
             detectNewlines();
         } else {
             detectSuffix();
         }
-        return accept(IDENTIFIER, text);
+        return accept(IDENTIFIER, name());
     }
 
     private Action scanInterpolation() {
@@ -1067,7 +1100,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
         } else {
             read();
         }
-        string.append(text());
+        string.append(data, start, position - start);
         return keepGoing();
     }
 
@@ -1083,7 +1116,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
             }
         }
         read();
-        string.append(text());
+        string.append(data, start, position - start);
         return keepGoing();
     }
 
@@ -1113,7 +1146,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
                 read();
             }
             detectSuffix();
-            return accept(IDENTIFIER, text());
+            return accept(IDENTIFIER, name());
         } else {
             detectSuffix();
             return accept(INTEGER, Integer.valueOf(text()));
@@ -1142,11 +1175,11 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
             }
             if (peek() == ')') {
                 leaveState();
-                String text = text();
-                if (dictionary.containsKey(text) && dictionary.get(text) != IDENTIFIER) {
+                int keyword = keywords.find(data, start, position);
+                if (keyword != -1 && keywords.getKind(keyword) != IDENTIFIER) {
                     return error();
                 } else {
-                    Action action = accept(QUOTED_IDENTIFIER, text);
+                    Action action = accept(QUOTED_IDENTIFIER, name());
                     read();
                     return action;
                 }
@@ -1165,11 +1198,11 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
             }
             if (peek() == '`') {
                 leaveState();
-                String text = text();
-                if (dictionary.containsKey(text) && dictionary.get(text) != IDENTIFIER) {
+                int keyword = keywords.find(data, start, position);
+                if (keyword != -1 && keywords.getKind(keyword) != IDENTIFIER) {
                     return error();
                 } else {
-                    Action action = accept(QUOTED_OPERATOR, text);
+                    Action action = accept(QUOTED_OPERATOR, name());
                     read();
                     return action;
                 }
@@ -1213,7 +1246,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
             throw unterminatedString();
         } else {
             read();
-            string.append(text());
+            string.append(data, start, position - start);
             return keepGoing();
         }
     }
@@ -1278,7 +1311,7 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
                 read();
             }
         } else {
-            startPosition = markStartPosition();
+            startOffset = position;
             leaveState();
         }
         return keepGoing();
@@ -1358,20 +1391,14 @@ public class Scanner extends beaver.Scanner implements AutoCloseable {
     private final class LookAhead implements AutoCloseable {
 
         private final int startPosition;
-        private final int startLine;
-        private final int startColumn;
 
         public LookAhead() {
             startPosition = position;
-            startLine = line;
-            startColumn = column;
         }
 
         @Override
         public void close() {
             position = startPosition;
-            line = startLine;
-            column = startColumn;
         }
 
         public void restore() {
@@ -4,38 +4,24 @@ import static org.apache.commons.lang.StringEscapeUtils.escapeJava;
 import static snacks.lang.parser.Terminals.NAMES;
 
 import beaver.Symbol;
+import snacks.lang.util.LineMap;
 import snacks.lang.util.Position;
 
 public class Token extends Symbol {
 
-    private Position position;
+    private final LineMap lines;
 
-    public Token(short kind, Position position) {
-        super(kind);
-        this.position = position;
+    public Token(short kind, LineMap lines, int start, int end) {
+        this(kind, null, lines, start, end);
     }
 
-    public Token(short kind, Object value, Position position) {
-        super(kind, value);
-        this.position = position;
-    }
-
-    @Override
-    public int getEnd() {
-        return makePosition(position.getEndLine(), position.getEndColumn());
+    public Token(short kind, Object value, LineMap lines, int start, int end) {
+        super(kind, start, end, value);
+        this.lines = lines;
     }
 
     public Position getPosition() {
-        return position;
-    }
-
-    @Override
-    public int getStart() {
-        return makePosition(position.getStartLine(), position.getStartColumn());
-    }
-
-    public void setPosition(Position position) {
-        this.position = position;
+        return new Position(lines, start, end);
     }
 
     @Override
@@ -46,6 +32,6 @@ public class Token extends Symbol {
         } else {
             name = "UNKNOWN";
         }
-        return name + "{value=\"" + escapeJava(value == null ? null : value.toString()) + "\" position=" + position + "}";
+        return name + "{value=\"" + escapeJava(value == null ? null : value.toString()) + "\" position=" + getPosition() + "}";
     }
 }
@@ -0,0 +1,90 @@
+package snacks.lang.parser;
+
+import static snacks.lang.parser.Terminals.IDENTIFIER;
+
+class WordTable {
+
+    private String[] words;
+    private short[] kinds;
+    private int size;
+
+    public WordTable(int capacity) {
+        this.words = new String[Integer.highestOneBit(capacity * 2 - 1)];
+        this.kinds = new short[words.length];
+    }
+
+    public int add(String word, short kind) {
+        int slot = slotOf(word.toCharArray(), 0, word.length());
+        if (words[slot] == null) {
+            words[slot] = word;
+            size++;
+        }
+        kinds[slot] = kind;
+        if (size * 2 > words.length) {
+            resize();
+            return find(word.toCharArray(), 0, word.length());
+        } else {
+            return slot;
+        }
+    }
+
+    public int find(char[] data, int start, int end) {
+        int slot = slotOf(data, start, end);
+        return words[slot] == null ? -1 : slot;
+    }
+
+    public short getKind(int slot) {
+        return kinds[slot];
+    }
+
+    public String getWord(int slot) {
+        return words[slot];
+    }
+
+    public String intern(char[] data, int start, int end) {
+        int slot = find(data, start, end);
+        if (slot == -1) {
+            slot = add(new String(data, start, end - start), IDENTIFIER);
+        }
+        return words[slot];
+    }
+
+    private boolean matches(String word, char[] data, int start, int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (word.charAt(i - start) != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize() {
+        String[] previousWords = words;
+        short[] previousKinds = kinds;
+        words = new String[previousWords.length * 2];
+        kinds = new short[words.length];
+        for (int i = 0; i < previousWords.length; i++) {
+            if (previousWords[i] != null) {
+                int slot = slotOf(previousWords[i].toCharArray(), 0, previousWords[i].length());
+                words[slot] = previousWords[i];
+                kinds[slot] = previousKinds[i];
+            }
+        }
+    }
+
+    private int slotOf(char[] data, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int mask = words.length - 1;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (words[slot] != null && !matches(words[slot], data, start, end)) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+}
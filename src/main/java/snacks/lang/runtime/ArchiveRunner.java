@@ -0,0 +1,59 @@
+package snacks.lang.runtime;
+
+import static java.lang.System.out;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import snacks.lang.cli.CommandLineRunner;
+import snacks.lang.cli.MainRunner;
+import snacks.lang.cli.RunnerException;
+
+public class ArchiveRunner implements CommandLineRunner {
+
+    @Override
+    public String getCommand() {
+        return "archive";
+    }
+
+    @Override
+    public String getHelpText() {
+        return "Creates a class data sharing archive from a training run of a snack";
+    }
+
+    @Override
+    public void run(List<String> args) {
+        if (args.size() < 2) {
+            out.println("Usage: snacks archive <archive file> <module> [arguments]");
+        } else {
+            archive(new File(args.get(0)), args.subList(1, args.size()));
+        }
+    }
+
+    public void archive(File archive, List<String> trainingArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MainRunner.class.getName());
+        command.add("run");
+        command.addAll(trainingArgs);
+        try {
+            archive.delete();
+            int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exitCode != 0) {
+                throw new RunnerException("Training run failed with exit code " + exitCode);
+            } else if (!archive.isFile()) {
+                throw new RunnerException("No archive was written to " + archive + "; dynamic archives require Java 13 or later");
+            }
+            out.println("Wrote class data sharing archive " + archive);
+        } catch (IOException exception) {
+            throw new RunnerException(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RunnerException(exception);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package snacks.lang.runtime;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Arrays.asList;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import snacks.lang.ResolutionException;
+import snacks.lang.SnackDefinition;
+import snacks.lang.compiler.Compiler;
+import snacks.lang.compiler.CompilerOption;
+
+public class CompilationCache {
+
+    private static final int MAGIC = 0x736e6b63;
+    private static final int FORMAT = 2;
+    private static final String EXTENSION = ".snackc";
+
+    public static CompilationCache defaultCache() {
+        if (!"true".equals(System.getProperty("snacks.cache"))) {
+            return null;
+        }
+        String directory = System.getProperty("snacks.cache.dir");
+        if (directory == null) {
+            directory = System.getProperty("user.home") + File.separator + ".snacks" + File.separator + "cache";
+        }
+        return new CompilationCache(new File(directory));
+    }
+
+    public static String compilerVersion() {
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putString(compilerFingerprint(), UTF_8);
+        hasher.putString(CompilerOption.defaultOptions().toString(), UTF_8);
+        return hasher.hash().toString();
+    }
+
+    public static String sourceHash(byte[] source) {
+        return Hashing.sha1().hashBytes(source).toString();
+    }
+
+    private static File codeSource(Class<?> clazz) {
+        try {
+            return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException exception) {
+            throw new ResolutionException(exception);
+        }
+    }
+
+    private static String compilerFingerprint() {
+        try (InputStream stream = CompilationCache.class.getClassLoader().getResourceAsStream(CompilerFingerprint.RESOURCE)) {
+            if (stream == null) {
+                return new CompilerFingerprint().fingerprint(asList(codeSource(Compiler.class)));
+            } else {
+                return new String(ByteStreams.toByteArray(stream), UTF_8).trim();
+            }
+        } catch (IOException exception) {
+            throw new ResolutionException(exception);
+        }
+    }
+
+    private final File directory;
+    private final String compilerVersion;
+
+    public CompilationCache(File directory) {
+        this(directory, compilerVersion());
+    }
+
+    public CompilationCache(File directory, String compilerVersion) {
+        this.directory = directory;
+        this.compilerVersion = compilerVersion;
+    }
+
+    public Entry get(String module, byte[] source) {
+        File file = fileFor(module, source);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            if (input.readInt() != MAGIC
+                || input.readInt() != FORMAT
+                || !compilerVersion.equals(input.readUTF())
+                || !module.equals(input.readUTF())
+                || !sourceHash(source).equals(input.readUTF())) {
+                return null;
+            }
+            Set<String> snacks = new HashSet<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                snacks.add(input.readUTF());
+            }
+            Map<String, String> imports = new TreeMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                imports.put(input.readUTF(), input.readUTF());
+            }
+            List<SnackDefinition> definitions = new ArrayList<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                String javaName = input.readUTF();
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                definitions.add(new SnackDefinition(javaName, bytes));
+            }
+            return new Entry(definitions, snacks, imports);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    public void put(String module, byte[] source, Entry entry) {
+        File file = fileFor(module, source);
+        File temporaryFile = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream output = new DataOutputStream(new FileOutputStream(temporaryFile))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT);
+                output.writeUTF(compilerVersion);
+                output.writeUTF(module);
+                output.writeUTF(sourceHash(source));
+                output.writeInt(entry.getSnacks().size());
+                for (String snack : entry.getSnacks()) {
+                    output.writeUTF(snack);
+                }
+                output.writeInt(entry.getImports().size());
+                for (Map.Entry<String, String> imported : entry.getImports().entrySet()) {
+                    output.writeUTF(imported.getKey());
+                    output.writeUTF(imported.getValue());
+                }
+                output.writeInt(entry.getDefinitions().size());
+                for (SnackDefinition definition : entry.getDefinitions()) {
+                    output.writeUTF(definition.getJavaName());
+                    output.writeInt(definition.getBytes().length);
+                    output.write(definition.getBytes());
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException exception) {
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    private File fileFor(String module, byte[] source) {
+        String key = Hashing.sha1().newHasher()
+            .putString(compilerVersion, UTF_8)
+            .putString(module, UTF_8)
+            .putString(sourceHash(source), UTF_8)
+            .hash()
+            .toString();
+        return new File(directory, module + '-' + key + EXTENSION);
+    }
+
+    public static final class Entry {
+
+        private final List<SnackDefinition> definitions;
+        private final Set<String> snacks;
+        private final Map<String, String> imports;
+
+        public Entry(Collection<SnackDefinition> definitions, Set<String> snacks, Map<String, String> imports) {
+            this.definitions = new ArrayList<>(definitions);
+            this.snacks = new HashSet<>(snacks);
+            this.imports = new TreeMap<>(imports);
+        }
+
+        public List<SnackDefinition> getDefinitions() {
+            return definitions;
+        }
+
+        public Map<String, String> getImports() {
+            return imports;
+        }
+
+        public Set<String> getSnacks() {
+            return snacks;
+        }
+    }
+}
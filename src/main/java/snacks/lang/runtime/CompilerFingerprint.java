@@ -0,0 +1,70 @@
+package snacks.lang.runtime;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.nio.file.FileVisitResult.CONTINUE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+public final class CompilerFingerprint {
+
+    public static final String RESOURCE = "snacks/lang/runtime/compiler.fingerprint";
+    private static final String CLASS_EXTENSION = ".class";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: CompilerFingerprint <output directory> <classpath entry>...");
+        }
+        List<File> classpath = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            classpath.add(new File(args[i]));
+        }
+        File file = new File(args[0], RESOURCE);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new CompilerFingerprint().fingerprint(classpath).getBytes(UTF_8));
+    }
+
+    public String fingerprint(Collection<File> classpath) throws IOException {
+        Hasher hasher = Hashing.sha1().newHasher();
+        for (File entry : classpath) {
+            if (entry.isDirectory()) {
+                Path root = entry.toPath();
+                for (String path : findClasses(root)) {
+                    hasher.putString(path, UTF_8);
+                    hasher.putBytes(Files.readAllBytes(root.resolve(path)));
+                }
+            } else if (entry.isFile()) {
+                hasher.putString(entry.getName(), UTF_8);
+                hasher.putBytes(Files.readAllBytes(entry.toPath()));
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private Set<String> findClasses(final Path root) throws IOException {
+        final Set<String> classes = new TreeSet<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (path.endsWith(CLASS_EXTENSION)) {
+                    classes.add(path);
+                }
+                return CONTINUE;
+            }
+        });
+        return classes;
+    }
+}
@@ -0,0 +1,226 @@
+package snacks.lang.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import snacks.lang.Fixity;
+import snacks.lang.Infix;
+import snacks.lang.JavaType;
+import snacks.lang.OperatorRegistry;
+import snacks.lang.Prefix;
+import snacks.lang.ResolutionException;
+import snacks.lang.Snack;
+import snacks.lang.SnackKind;
+
+public class ModuleIndex {
+
+    public static final String DIRECTORY = "META-INF/snacks/";
+    public static final String EXTENSION = ".idx";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String INFIX = "infix";
+    private static final String JAVA = "java";
+    private static final String PREFIX = "prefix";
+
+    public static String resourceFor(String module) {
+        return DIRECTORY + module + EXTENSION;
+    }
+
+    private final String module;
+    private final List<Entry> entries;
+
+    public ModuleIndex(String module) {
+        this.module = module;
+        this.entries = new ArrayList<>();
+    }
+
+    public boolean add(Class<?> clazz) {
+        Snack snack = clazz.getAnnotation(Snack.class);
+        if (snack == null) {
+            return false;
+        }
+        Infix infix = clazz.getAnnotation(Infix.class);
+        Prefix prefix = clazz.getAnnotation(Prefix.class);
+        JavaType javaType = clazz.getAnnotation(JavaType.class);
+        String javaClass = javaType == null ? null : javaType.value().getName();
+        if (infix != null) {
+            entries.add(new Entry(snack.name(), snack.kind(), clazz.getName(), javaClass, infix.fixity(), infix.precedence()));
+        } else if (prefix != null) {
+            entries.add(new Entry(snack.name(), snack.kind(), clazz.getName(), javaClass, null, prefix.precedence()));
+        } else {
+            entries.add(new Entry(snack.name(), snack.kind(), clazz.getName(), javaClass, null, -1));
+        }
+        return true;
+    }
+
+    public Entry find(String name, SnackKind kind) {
+        for (Entry entry : entries) {
+            if (entry.getName().equals(name) && entry.getKind() == kind) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public void read(InputStream stream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, UTF_8));
+        String line;
+        while (null != (line = reader.readLine())) {
+            if (!line.isEmpty()) {
+                entries.add(parse(line));
+            }
+        }
+    }
+
+    public void registerOperators(OperatorRegistry operators) {
+        for (Entry entry : entries) {
+            entry.registerOperator(operators);
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        Writer writer = new OutputStreamWriter(stream, UTF_8);
+        for (Entry entry : entries) {
+            writer.write(entry.toLine());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private Entry parse(String line) {
+        String[] fields = line.split("\t");
+        try {
+            String javaClass = null;
+            Fixity fixity = null;
+            int precedence = -1;
+            for (int i = 3; i < fields.length; i++) {
+                String attribute = fields[i].substring(0, fields[i].indexOf('='));
+                String value = fields[i].substring(fields[i].indexOf('=') + 1);
+                if (JAVA.equals(attribute)) {
+                    javaClass = value;
+                } else if (INFIX.equals(attribute)) {
+                    fixity = Fixity.valueOf(value.substring(0, value.indexOf(':')));
+                    precedence = Integer.parseInt(value.substring(value.indexOf(':') + 1));
+                } else if (PREFIX.equals(attribute)) {
+                    precedence = Integer.parseInt(value);
+                } else {
+                    throw new IllegalArgumentException("Unknown attribute " + attribute);
+                }
+            }
+            return new Entry(fields[1], SnackKind.valueOf(fields[0]), fields[2], javaClass, fixity, precedence);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new ResolutionException("Malformed index entry for module " + module + ": '" + line + "'");
+        }
+    }
+
+    public static final class Entry {
+
+        private final String name;
+        private final SnackKind kind;
+        private final String className;
+        private final String javaClass;
+        private final Fixity fixity;
+        private final int precedence;
+
+        public Entry(String name, SnackKind kind, String className, String javaClass, Fixity fixity, int precedence) {
+            this.name = name;
+            this.kind = kind;
+            this.className = className;
+            this.javaClass = javaClass;
+            this.fixity = fixity;
+            this.precedence = precedence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof Entry) {
+                Entry other = (Entry) o;
+                return new EqualsBuilder()
+                    .append(name, other.name)
+                    .append(kind, other.kind)
+                    .append(className, other.className)
+                    .append(javaClass, other.javaClass)
+                    .append(fixity, other.fixity)
+                    .append(precedence, other.precedence)
+                    .isEquals();
+            } else {
+                return false;
+            }
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getJavaClass() {
+            return javaClass;
+        }
+
+        public SnackKind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, kind, className, javaClass, fixity, precedence);
+        }
+
+        public boolean isOperator() {
+            return precedence >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return toLine();
+        }
+
+        private void registerOperator(OperatorRegistry operators) {
+            if (fixity != null) {
+                operators.registerInfix(precedence, fixity, name);
+            } else if (isOperator()) {
+                operators.registerPrefix(precedence, name);
+            }
+        }
+
+        private String toLine() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(kind).append('\t').append(name).append('\t').append(className);
+            if (javaClass != null) {
+                builder.append('\t').append(JAVA).append('=').append(javaClass);
+            }
+            if (fixity != null) {
+                builder.append('\t').append(INFIX).append('=').append(fixity).append(':').append(precedence);
+            } else if (isOperator()) {
+                builder.append('\t').append(PREFIX).append('=').append(precedence);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package snacks.lang.runtime;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public final class ModuleIndexer {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ModuleIndexer <classes directory> <output directory>");
+        }
+        new ModuleIndexer().index(new File(args[0]), new File(args[1]));
+    }
+
+    public void index(File classesDirectory, File outputDirectory) throws IOException, ClassNotFoundException {
+        ClassLoader loader = new URLClassLoader(new URL[] { classesDirectory.toURI().toURL() }, getClass().getClassLoader());
+        Map<String, ModuleIndex> indexes = new TreeMap<>();
+        for (String className : findClasses(classesDirectory)) {
+            Class<?> clazz = Class.forName(className, false, loader);
+            String module = className.substring(0, className.lastIndexOf('.'));
+            if (!indexes.containsKey(module)) {
+                indexes.put(module, new ModuleIndex(module));
+            }
+            indexes.get(module).add(clazz);
+        }
+        for (ModuleIndex index : indexes.values()) {
+            if (!index.isEmpty()) {
+                File file = new File(outputDirectory, ModuleIndex.resourceFor(index.getModule()));
+                Files.createDirectories(file.getParentFile().toPath());
+                try (OutputStream output = new FileOutputStream(file)) {
+                    index.write(output);
+                }
+            }
+        }
+    }
+
+    private Iterable<String> findClasses(File classesDirectory) throws IOException {
+        final Path root = classesDirectory.toPath();
+        final Set<String> classes = new TreeSet<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (path.endsWith(CLASS_EXTENSION)) {
+                    String className = path.substring(0, path.length() - CLASS_EXTENSION.length()).replace('/', '.');
+                    classes.add(className);
+                }
+                return CONTINUE;
+            }
+        });
+        return classes;
+    }
+}
@@ -1,5 +1,7 @@
 package snacks.lang.runtime;
 
+import beaver.Symbol;
+import com.google.common.io.ByteStreams;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import snacks.lang.Infix;
 import snacks.lang.JavaType;
@@ -16,7 +18,10 @@ import snacks.lang.SnackKind;
 import snacks.lang.SnackType;
 import snacks.lang.SnacksRegistry;
 import snacks.lang.Type;
+import snacks.lang.ast.NamedNode;
+import snacks.lang.compiler.CompilationPhase;
 import snacks.lang.compiler.Compiler;
+import snacks.lang.compiler.ModuleGraph;
 import snacks.lang.parser.Parser;
 import snacks.lang.parser.Scanner;
 import snacks.lang.parser.SymbolEnvironment;
@@ -25,10 +30,13 @@ import snacks.lang.parser.Translator;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
@@ -40,15 +48,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import static java.lang.Character.isUpperCase;
+import static java.util.Collections.newSetFromMap;
 import static java.util.regex.Pattern.compile;
 import static org.apache.commons.lang.StringUtils.capitalize;
 import static snacks.lang.JavaUtils.javaClass;
+import static snacks.lang.compiler.CompilationPhase.DEFINE;
+import static snacks.lang.compiler.CompilationPhase.GENERATE;
+import static snacks.lang.compiler.CompilationPhase.PARSE;
+import static snacks.lang.compiler.CompilationPhase.TRANSLATE;
 import static snacks.lang.SnackKind.TYPE;
 import static snacks.lang.Types.algebraic;
 import static snacks.lang.Types.var;
@@ -56,24 +73,43 @@ import static snacks.lang.Types.var;
 public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry {
 
     private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String DEFAULT_IMPORT = "snacks.lang";
 
-    private final Set<String> loadedSnacks = new HashSet<>();
-    private final Map<SnackKey, SnackValue> snacks = new HashMap<>();
-    private final Map<Class<?>, SnackValue> classes = new HashMap<>();
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Set<SnackKey> missingSnacks = newSetFromMap(new ConcurrentHashMap<SnackKey, Boolean>());
+    private final Set<String> resolvedModules = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Map<SnackKey, SnackValue> snacks = new ConcurrentHashMap<>();
+    private final Map<Class<?>, SnackValue> classes = new ConcurrentHashMap<>();
     private final OperatorRegistry operators = new OperatorRegistry();
-    private final Set<URL> sourceFiles = new HashSet<>();
+    private final Set<URL> sourceFiles = newSetFromMap(new ConcurrentHashMap<URL, Boolean>());
+    private final ConcurrentMap<String, ModuleIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, String> indexedJavaTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ModuleResolution> moduleResolutions = new ConcurrentHashMap<>();
+    private final Map<Thread, ModuleResolution> waitingResolutions = new HashMap<>();
+    private final ConcurrentMap<String, String> sourceHashes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<String, String>> moduleImports = new ConcurrentHashMap<>();
+    private final CompilationCache cache;
 
     public SnacksClassLoader() {
         super(new URL[0]);
+        cache = null;
     }
 
     public SnacksClassLoader(ClassLoader parent) {
+        this(parent, null);
+    }
+
+    public SnacksClassLoader(ClassLoader parent, CompilationCache cache) {
         super(new URL[0], parent);
+        this.cache = cache;
     }
 
     @Override
     public Class<?> classOf(String qualifiedName, SnackKind kind) {
-        if (is(qualifiedName, kind)) {
+        if (hasSnack(qualifiedName, kind)) {
             return snacks.get(new SnackKey(qualifiedName, kind)).getJavaClazz();
         } else {
             return null;
@@ -81,13 +117,7 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
     }
 
     public void defineSnacks(Collection<SnackDefinition> definitions) {
-        List<Class<?>> snackClasses = new ArrayList<>();
-        for (SnackDefinition definition : definitions) {
-            snackClasses.add(defineClass(definition));
-        }
-        for (Class<?> snackClazz : snackClasses) {
-            processSnack(snackClazz);
-        }
+        defineSnackClasses(definitions);
     }
 
     @Override
@@ -100,9 +130,17 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         return operators.isOperator(name);
     }
 
+    public void loadModule(String module) {
+        resolveSnackSource(module);
+    }
+
+    public void loadModule(String module, Symbol tree) {
+        resolveSnackSource(module, tree);
+    }
+
     @Override
     public Type typeOf(String qualifiedName, SnackKind kind) {
-        if (is(qualifiedName, kind)) {
+        if (hasSnack(qualifiedName, kind)) {
             return snacks.get(new SnackKey(qualifiedName, kind)).getType();
         } else {
             return null;
@@ -110,6 +148,9 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
     }
 
     public Maybe typeOf(Class<?> clazz) {
+        if (!classes.containsKey(clazz)) {
+            resolveJavaClass(clazz);
+        }
         if (classes.containsKey(clazz)) {
             return new Just(classes.get(clazz).getType());
         } else {
@@ -122,6 +163,10 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         return fileName.substring(0, fileName.lastIndexOf('.'));
     }
 
+    protected CompilationCache.Entry cachedModule(String module, byte[] source) {
+        return cache == null ? null : cache.get(module, source);
+    }
+
     private File[] classFiles(File directory) {
         File[] files = directory.listFiles(new FileFilter() {
             @Override
@@ -132,6 +177,42 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         return files == null ? new File[0] : files;
     }
 
+    private long completePhase(String module, CompilationPhase phase, long start) {
+        long end = System.nanoTime();
+        phaseCompleted(module, phase, end - start);
+        return end;
+    }
+
+    private void compileSnackSource(String module, URL url, Symbol parsedTree) {
+        try {
+            if (url != null && sourceFiles.add(url)) {
+                byte[] source = readSource(url);
+                sourceHashes.putIfAbsent(module, CompilationCache.sourceHash(source));
+                if (!resolveCachedSource(module, source)) {
+                    long start = System.nanoTime();
+                    Symbol tree = parsedTree;
+                    if (tree == null) {
+                        tree = new Parser().parse(new Scanner(url.getFile(), UTF_8.decode(ByteBuffer.wrap(source))));
+                        start = completePhase(module, PARSE, start);
+                    }
+                    List<NamedNode> declarations = new Translator(new SymbolEnvironment(this), module).translateModule(tree);
+                    start = completePhase(module, TRANSLATE, start);
+                    List<SnackDefinition> definitions = new Compiler(this).compile(declarations);
+                    start = completePhase(module, GENERATE, start);
+                    List<Class<?>> snackClasses = defineSnackClasses(definitions);
+                    completePhase(module, DEFINE, start);
+                    Set<String> importedModules = ModuleGraph.importsOf(tree);
+                    importedModules.add(DEFAULT_IMPORT);
+                    Map<String, String> importHashes = importHashes(module, importedModules);
+                    moduleImports.put(module, importHashes);
+                    moduleCompiled(module, source, new CompilationCache.Entry(definitions, snackNames(snackClasses), importHashes));
+                }
+            }
+        } catch (IOException exception) {
+            throw new ResolutionException(exception);
+        }
+    }
+
     private Class<?> defineClass(SnackDefinition definition) {
         return defineClass(definition, SnacksClassLoader.class.getProtectionDomain());
     }
@@ -141,6 +222,31 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         return super.defineClass(definition.getJavaName(), bytes, 0, bytes.length, protectionDomain);
     }
 
+    private List<Class<?>> defineSnackClasses(Collection<SnackDefinition> definitions) {
+        List<Class<?>> snackClasses = new ArrayList<>();
+        for (SnackDefinition definition : definitions) {
+            snackClasses.add(defineClass(definition));
+        }
+        for (Class<?> snackClazz : snackClasses) {
+            processSnack(snackClazz);
+        }
+        return snackClasses;
+    }
+
+    private AccessibleObject findTypeMember(Class<?> clazz) {
+        for (Method method : clazz.getMethods()) {
+            if (method.getAnnotation(SnackType.class) != null) {
+                return method;
+            }
+        }
+        for (Field field : clazz.getFields()) {
+            if (field.getAnnotation(SnackType.class) != null) {
+                return field;
+            }
+        }
+        return null;
+    }
+
     private Class<?> getJavaClazz(Class<?> clazz) {
         JavaType javaType = clazz.getAnnotation(JavaType.class);
         if (javaType == null) {
@@ -151,22 +257,82 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
     }
 
     private boolean hasSnack(String qualifiedName, SnackKind kind) {
-        String key = qualifiedName + '#' + kind;
-        if (!loadedSnacks.contains(key)) {
-            resolveSnackClass(qualifiedName, kind);
-            loadedSnacks.add(key);
+        SnackKey key = new SnackKey(qualifiedName, kind);
+        if (snacks.containsKey(key)) {
+            return true;
+        } else if (missingSnacks.contains(key)) {
+            return false;
         }
-        return loadedSnacks.contains(key);
+        if (resolveSnackClass(qualifiedName, kind) && !snacks.containsKey(key)) {
+            missingSnacks.add(key);
+        }
+        return snacks.containsKey(key);
+    }
+
+    private Map<String, String> importHashes(String module, Set<String> importedModules) {
+        Map<String, String> hashes = new TreeMap<>();
+        for (String importedModule : importedModules) {
+            String hash = sourceHash(importedModule);
+            if (hash != null) {
+                hashes.put(importedModule, hash);
+                if (moduleImports.containsKey(importedModule)) {
+                    hashes.putAll(moduleImports.get(importedModule));
+                }
+            }
+        }
+        hashes.remove(module);
+        return hashes;
     }
 
-    private boolean is(String qualifiedName, SnackKind kind) {
-        return hasSnack(qualifiedName, kind) && snacks.containsKey(new SnackKey(qualifiedName, kind));
+    private boolean importsUnchanged(Map<String, String> importHashes) {
+        for (Map.Entry<String, String> entry : importHashes.entrySet()) {
+            if (!entry.getValue().equals(sourceHash(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ModuleIndex indexOf(String module) {
+        if (!indexes.containsKey(module)) {
+            ModuleIndex index = new ModuleIndex(module);
+            try {
+                Enumeration<URL> resources = getResources(ModuleIndex.resourceFor(module));
+                while (resources.hasMoreElements()) {
+                    try (InputStream stream = resources.nextElement().openStream()) {
+                        index.read(stream);
+                    }
+                }
+            } catch (IOException exception) {
+                throw new ResolutionException(exception);
+            }
+            if (indexes.putIfAbsent(module, index) == null) {
+                index.registerOperators(operators);
+                for (ModuleIndex.Entry entry : index.getEntries()) {
+                    if (entry.getJavaClass() != null) {
+                        indexedJavaTypes.put(entry.getJavaClass(), entry.getClassName());
+                    }
+                }
+            }
+        }
+        ModuleIndex index = indexes.get(module);
+        return index.isEmpty() ? null : index;
+    }
+
+    protected void moduleCompiled(String module, byte[] source, CompilationCache.Entry entry) {
+        if (cache != null) {
+            cache.put(module, source, entry);
+        }
     }
 
     private String moduleName(Class<?> subClazz) {
         return subClazz.getName().substring(0, subClazz.getName().lastIndexOf('.'));
     }
 
+    protected void phaseCompleted(String module, CompilationPhase phase, long nanos) {
+        // intentionally empty
+    }
+
     private void processAnnotations(Class<?> snackClass, String name) {
         Infix infix = snackClass.getAnnotation(Infix.class);
         if (infix != null) {
@@ -184,55 +350,62 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         if (snack != null) {
             String module = clazz.getName().substring(0, clazz.getName().lastIndexOf('.'));
             String qualifiedName = module + '.' + snack.name();
-            Type type;
+            SnackValue value;
             if (snack.kind() == TYPE) {
-                type = reifyType(qualifiedName, snack, clazz);
+                value = reifyType(qualifiedName, snack, clazz);
             } else {
-                type = resolveType(clazz);
+                value = new DeclaredValue(getJavaClazz(clazz), typeMember(clazz));
                 processAnnotations(clazz, snack.name());
             }
-            registerSnack(qualifiedName, snack, clazz, type);
+            registerSnack(qualifiedName, snack, clazz, value);
         }
     }
 
-    private void registerSnack(String qualifiedName, Snack snack, Class<?> clazz, Type type) {
-        SnackValue value = new SnackValue(getJavaClazz(clazz), type);
-        snacks.put(new SnackKey(qualifiedName, snack.kind()), value);
+    private byte[] readSource(URL url) throws IOException {
+        try (InputStream stream = url.openStream()) {
+            return ByteStreams.toByteArray(stream);
+        }
+    }
+
+    private void registerSnack(String qualifiedName, Snack snack, Class<?> clazz, SnackValue value) {
+        SnackKey key = new SnackKey(qualifiedName, snack.kind());
+        snacks.put(key, value);
+        missingSnacks.remove(key);
         classes.put(clazz, value);
         if (value.getJavaClazz() != clazz) {
             classes.put(value.getJavaClazz(), value);
         }
     }
 
-    private Type reifyType(String qualifiedName, Snack snack, Class<?> clazz) {
-        List<Type> memberTypes = new ArrayList<>();
-        try {
-            return resolveType(clazz);
-        } catch (ResolutionException exception) {
-            for (Class<?> subClazz : clazz.getClasses()) {
-                Snack subSnack = subClazz.getAnnotation(Snack.class);
-                if (subSnack != null && subSnack.kind() == TYPE) {
-                    Type type = resolveType(subClazz);
-                    memberTypes.add(type);
-                    registerSnack(moduleName(subClazz) + '.' + subSnack.name(), subSnack, subClazz, type);
-                }
-            }
-            if (memberTypes.isEmpty()) {
-                throw new ResolutionException("Unable to resolve type of " + snack.name()
-                    + " and type does not contain members");
-            } else {
-                List<Type> arguments = new ArrayList<>();
-                for (String argument : snack.arguments()) {
-                    arguments.add(var(argument));
-                }
-                return algebraic(qualifiedName, arguments, memberTypes);
+    private SnackValue reifyType(String qualifiedName, Snack snack, Class<?> clazz) {
+        AccessibleObject typeMember = findTypeMember(clazz);
+        if (typeMember != null) {
+            return new DeclaredValue(getJavaClazz(clazz), typeMember);
+        }
+        List<SnackValue> members = new ArrayList<>();
+        for (Class<?> subClazz : clazz.getClasses()) {
+            Snack subSnack = subClazz.getAnnotation(Snack.class);
+            if (subSnack != null && subSnack.kind() == TYPE) {
+                SnackValue member = new DeclaredValue(getJavaClazz(subClazz), typeMember(subClazz));
+                members.add(member);
+                registerSnack(moduleName(subClazz) + '.' + subSnack.name(), subSnack, subClazz, member);
             }
         }
+        if (members.isEmpty()) {
+            throw new ResolutionException("Unable to resolve type of " + snack.name()
+                + " and type does not contain members");
+        } else {
+            return new AlgebraicValue(getJavaClazz(clazz), qualifiedName, snack.arguments(), members);
+        }
     }
 
     private boolean resolveByName(String module, String name) {
+        String className = javaClass(module, name);
+        if (findLoadedClass(className) == null && getResource(className.replace('.', '/') + ".class") == null) {
+            return false;
+        }
         try {
-            processSnack(loadClass(javaClass(module, name)));
+            processSnack(loadClass(className));
             return true;
         } catch (ClassNotFoundException | NoClassDefFoundError exception) {
             return false;
@@ -243,6 +416,18 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         return !isUpperCase(name.charAt(0)) && resolveByName(module, capitalize(name));
     }
 
+    private void resolveJavaClass(Class<?> clazz) {
+        if (indexedJavaTypes.containsKey(clazz.getName())) {
+            try {
+                processSnack(loadClass(indexedJavaTypes.get(clazz.getName())));
+            } catch (ClassNotFoundException exception) {
+                throw new ResolutionException(exception);
+            }
+        } else {
+            processSnack(clazz);
+        }
+    }
+
     private void resolveClasses(File directory, String module) {
         if (directory.exists()) {
             for (File file : classFiles(directory)) {
@@ -258,13 +443,13 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
     }
 
     private void resolveClasses(URL zipResource, String module) throws IOException {
+        Pattern pattern = compile("(" + module.replace('.', '/') + "/[^.]+)\\.class");
         try (ZipInputStream zip = new ZipInputStream(zipResource.openStream(), UTF_8)) {
             ZipEntry entry;
             while (null != (entry = zip.getNextEntry())) {
                 try {
                     if (!entry.isDirectory()) {
                         String name = entry.getName();
-                        Pattern pattern = compile("(" + module.replace('.', '/') + "/[^.]+)\\.class");
                         Matcher matcher = pattern.matcher(name);
                         if (matcher.find()) {
                             try {
@@ -281,16 +466,61 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         }
     }
 
-    private void resolveSnackClass(String qualifiedName, SnackKind kind) {
+    private boolean resolveSnackClass(String qualifiedName, SnackKind kind) {
         String module = qualifiedName.substring(0, qualifiedName.lastIndexOf('.'));
         String name = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
         SnackKey key = new SnackKey(qualifiedName, kind);
-        if (!resolveByName(module, name) && !resolveByNameCapitalized(module, name) || !snacks.containsKey(key)) {
-            resolveSnackPackage(module);
-            if (!loadedSnacks.contains(qualifiedName + '#' + kind)) {
-                resolveSnackSource(module);
+        ModuleIndex index = indexOf(module);
+        if (index != null) {
+            if ((!resolveIndexed(index, name, kind) || !snacks.containsKey(key)) && !resolvedModules.contains(module)) {
+                return resolveModule(module);
+            }
+        } else if (!resolvedModules.contains(module)) {
+            if (!resolveByName(module, name) && !resolveByNameCapitalized(module, name) || !snacks.containsKey(key)) {
+                resolveSnackPackage(module);
+                return resolveModule(module);
             }
         }
+        return true;
+    }
+
+    private boolean resolveCachedSource(String module, byte[] source) {
+        CompilationCache.Entry entry = cachedModule(module, source);
+        if (entry == null || !importsUnchanged(entry.getImports())) {
+            return false;
+        }
+        for (String importedModule : entry.getImports().keySet()) {
+            resolveSnackSource(importedModule);
+        }
+        defineSnacks(entry.getDefinitions());
+        if (!snackNames().containsAll(entry.getSnacks())) {
+            throw new ResolutionException("Cached module " + module + " did not register its recorded snacks");
+        }
+        moduleImports.put(module, entry.getImports());
+        return true;
+    }
+
+    private boolean resolveIndexed(ModuleIndex index, String name, SnackKind kind) {
+        ModuleIndex.Entry entry = index.find(name, kind);
+        if (entry == null) {
+            return false;
+        }
+        try {
+            processSnack(loadClass(entry.getClassName()));
+            return true;
+        } catch (ClassNotFoundException | NoClassDefFoundError exception) {
+            throw new ResolutionException("Indexed snack " + index.getModule() + '.' + name
+                + " has no class " + entry.getClassName());
+        }
+    }
+
+    private boolean resolveModule(String module) {
+        if (resolveSnackSource(module)) {
+            resolvedModules.add(module);
+            return true;
+        } else {
+            return false;
+        }
     }
 
     private void resolveSnackPackage(String module) {
@@ -310,49 +540,143 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         }
     }
 
-    private void resolveSnackSource(String module) {
-        try {
-            URL url = getResource(module.replace('.', '/') + ".snack");
-            if (url != null && !sourceFiles.contains(url)) {
-                sourceFiles.add(url);
-                Scanner scanner = new Scanner(url.getFile(), url.openStream());
-                Parser parser = new Parser();
-                Translator translator = new Translator(new SymbolEnvironment(this), module);
-                Compiler compiler = new Compiler(this);
-                defineSnacks(compiler.compile(translator.translateModule(parser.parse(scanner))));
+    private boolean resolveSnackSource(String module) {
+        return resolveSnackSource(module, null);
+    }
+
+    private boolean resolveSnackSource(String module, Symbol parsedTree) {
+        ModuleResolution resolution = new ModuleResolution(Thread.currentThread());
+        ModuleResolution existingResolution = moduleResolutions.putIfAbsent(module, resolution);
+        if (existingResolution == null) {
+            try {
+                compileSnackSource(module, getResource(sourcePath(module)), parsedTree);
+            } finally {
+                moduleResolutions.remove(module, resolution);
+                resolution.complete();
             }
-        } catch (IOException exception) {
-            throw new ResolutionException(exception);
+            return true;
+        } else {
+            return existingResolution.await();
         }
     }
 
-    private Type resolveType(Class<?> clazz) {
-        try {
-            Method[] methods = clazz.getMethods();
-            for (Method method : methods) {
-                if (method.getAnnotation(SnackType.class) != null) {
-                    return (Type) method.invoke(null);
-                }
+
+    private Set<String> snackNames() {
+        Set<String> names = new HashSet<>();
+        for (SnackKey key : snacks.keySet()) {
+            names.add(key.getName() + '#' + key.getKind());
+        }
+        return names;
+    }
+
+    private Set<String> snackNames(Collection<Class<?>> snackClasses) {
+        Set<String> names = new HashSet<>();
+        for (Class<?> clazz : snackClasses) {
+            Snack snack = clazz.getAnnotation(Snack.class);
+            if (snack != null) {
+                names.add(moduleName(clazz) + '.' + snack.name() + '#' + snack.kind());
             }
-            Field[] fields = clazz.getFields();
-            for (Field field : fields) {
-                if (field.getAnnotation(SnackType.class) != null) {
-                    return (Type) field.get(null);
-                }
+        }
+        return names;
+    }
+
+    private String sourceHash(String module) {
+        if (!sourceHashes.containsKey(module)) {
+            URL url = getResource(sourcePath(module));
+            if (url == null) {
+                return null;
+            }
+            try {
+                sourceHashes.putIfAbsent(module, CompilationCache.sourceHash(readSource(url)));
+            } catch (IOException exception) {
+                throw new ResolutionException(exception);
             }
+        }
+        return sourceHashes.get(module);
+    }
+
+    private String sourcePath(String module) {
+        return module.replace('.', '/') + ".snack";
+    }
+
+    private AccessibleObject typeMember(Class<?> clazz) {
+        AccessibleObject typeMember = findTypeMember(clazz);
+        if (typeMember == null) {
             throw new ResolutionException("Could not resolve type for snack " + clazz.getName());
-        } catch (ReflectiveOperationException exception) {
-            throw new ResolutionException(exception);
+        }
+        return typeMember;
+    }
+
+    @Override
+    protected void addURL(URL url) {
+        super.addURL(url);
+        missingSnacks.clear();
+        resolvedModules.clear();
+        for (Map.Entry<String, ModuleIndex> entry : indexes.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                indexes.remove(entry.getKey(), entry.getValue());
+            }
         }
     }
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
         Class<?> clazz = super.loadClass(name, resolve);
-        processSnack(clazz);
+        if (!classes.containsKey(clazz)) {
+            processSnack(clazz);
+        }
         return clazz;
     }
 
+    private final class ModuleResolution {
+
+        private final Thread owner;
+        private final CountDownLatch completion;
+
+        public ModuleResolution(Thread owner) {
+            this.owner = owner;
+            this.completion = new CountDownLatch(1);
+        }
+
+        public boolean await() {
+            Thread thread = Thread.currentThread();
+            synchronized (waitingResolutions) {
+                if (completion.getCount() == 0) {
+                    return true;
+                } else if (dependsOn(thread)) {
+                    return false;
+                }
+                waitingResolutions.put(thread, this);
+            }
+            try {
+                completion.await();
+                return true;
+            } catch (InterruptedException exception) {
+                thread.interrupt();
+                throw new ResolutionException(exception);
+            } finally {
+                synchronized (waitingResolutions) {
+                    waitingResolutions.remove(thread);
+                }
+            }
+        }
+
+        public void complete() {
+            completion.countDown();
+        }
+
+        private boolean dependsOn(Thread thread) {
+            ModuleResolution resolution = this;
+            while (resolution != null && resolution.completion.getCount() > 0) {
+                if (resolution.owner == thread) {
+                    return true;
+                }
+                resolution = waitingResolutions.get(resolution.owner);
+            }
+            return false;
+        }
+    }
+
     private static final class SnackKey {
 
         private final String name;
@@ -363,6 +687,14 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
             this.kind = kind;
         }
 
+        public SnackKind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (o == this) {
@@ -389,14 +721,13 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         }
     }
 
-    private static final class SnackValue {
+    private abstract static class SnackValue {
 
-        private final Type type;
         private final Class<?> javaClazz;
+        private volatile Type type;
 
-        public SnackValue(Class<?> javaClazz, Type type) {
+        public SnackValue(Class<?> javaClazz) {
             this.javaClazz = javaClazz;
-            this.type = type;
         }
 
         public Class<?> getJavaClazz() {
@@ -404,12 +735,69 @@ public class SnacksClassLoader extends URLClassLoader implements SnacksRegistry
         }
 
         public Type getType() {
-            return type;
+            Type reifiedType = type;
+            if (reifiedType == null) {
+                reifiedType = reify();
+                type = reifiedType;
+            }
+            return reifiedType;
         }
 
         @Override
         public String toString() {
             return javaClazz.getName();
         }
+
+        protected abstract Type reify();
+    }
+
+    private static final class AlgebraicValue extends SnackValue {
+
+        private final String qualifiedName;
+        private final String[] arguments;
+        private final List<SnackValue> members;
+
+        public AlgebraicValue(Class<?> javaClazz, String qualifiedName, String[] arguments, List<SnackValue> members) {
+            super(javaClazz);
+            this.qualifiedName = qualifiedName;
+            this.arguments = arguments;
+            this.members = members;
+        }
+
+        @Override
+        protected Type reify() {
+            List<Type> argumentTypes = new ArrayList<>();
+            for (String argument : arguments) {
+                argumentTypes.add(var(argument));
+            }
+            List<Type> memberTypes = new ArrayList<>();
+            for (SnackValue member : members) {
+                memberTypes.add(member.getType());
+            }
+            return algebraic(qualifiedName, argumentTypes, memberTypes);
+        }
+    }
+
+    private static final class DeclaredValue extends SnackValue {
+
+        private final AccessibleObject typeMember;
+
+        public DeclaredValue(Class<?> javaClazz, AccessibleObject typeMember) {
+            super(javaClazz);
+            this.typeMember = typeMember;
+        }
+
+        @Override
+        protected Type reify() {
+            try {
+                if (typeMember instanceof Method) {
+                    return (Type) ((Method) typeMember).invoke(null);
+                } else {
+                    return (Type) ((Field) typeMember).get(null);
+                }
+            } catch (ReflectiveOperationException exception) {
+                throw new ResolutionException(exception);
+            }
+        }
     }
 }
@@ -0,0 +1,279 @@
+package snacks.lang.runtime;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import com.google.common.hash.Hashing;
+import snacks.lang.ResolutionException;
+import snacks.lang.compiler.ModuleGraph;
+import snacks.lang.parser.ParseException;
+
+public class SnacksReloader implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(SnacksReloader.class.getName());
+    private static final String SOURCE_EXTENSION = ".snack";
+
+    private final ClassLoader parent;
+    private final CompilationCache cache;
+    private final List<File> sourceRoots;
+    private final AtomicReference<Generation> generation;
+    private Map<String, SourceFile> sources;
+    private ScheduledExecutorService watcher;
+
+    public SnacksReloader(ClassLoader parent, CompilationCache cache, Collection<File> sourceRoots) {
+        this.parent = parent;
+        this.cache = cache;
+        this.sourceRoots = new ArrayList<>(sourceRoots);
+        this.sources = findSources(new HashMap<String, SourceFile>());
+        this.generation = new AtomicReference<>(generation(Collections.<String>emptySet(), Collections.<String, CompiledModule>emptyMap()));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    public SnacksClassLoader getLoader() {
+        return generation.get();
+    }
+
+    public synchronized Set<String> reload() {
+        Map<String, SourceFile> currentSources = findSources(sources);
+        Set<String> changedModules = new HashSet<>();
+        for (String module : currentSources.keySet()) {
+            if (!currentSources.get(module).equals(sources.get(module))) {
+                changedModules.add(module);
+            }
+        }
+        for (String module : sources.keySet()) {
+            if (!currentSources.containsKey(module)) {
+                changedModules.add(module);
+            }
+        }
+        if (changedModules.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> staleModules = graphOf(currentSources).getDependents(changedModules);
+        generation.set(generation(staleModules, generation.get().getCompiledModules()));
+        sources = currentSources;
+        return staleModules;
+    }
+
+    public synchronized void watch(long period, TimeUnit unit) {
+        close();
+        watcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "snacks-reloader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        watcher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Set<String> modules = reload();
+                    if (!modules.isEmpty()) {
+                        logger.info("Reloaded modules " + modules);
+                    }
+                } catch (RuntimeException exception) {
+                    logger.log(Level.WARNING, "Failed to reload modules", exception);
+                }
+            }
+        }, period, period, unit);
+    }
+
+    private Map<String, SourceFile> findSources(final Map<String, SourceFile> previousSources) {
+        final Map<String, SourceFile> currentSources = new HashMap<>();
+        for (File sourceRoot : sourceRoots) {
+            final Path root = sourceRoot.toPath();
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                        String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                        if (path.endsWith(SOURCE_EXTENSION)) {
+                            String module = path.substring(0, path.length() - SOURCE_EXTENSION.length()).replace('/', '.');
+                            if (!currentSources.containsKey(module)) {
+                                currentSources.put(module, sourceFile(file, previousSources.get(module)));
+                            }
+                        }
+                        return CONTINUE;
+                    }
+                });
+            } catch (IOException exception) {
+                throw new ResolutionException(exception);
+            }
+        }
+        return currentSources;
+    }
+
+    private Generation generation(Set<String> staleModules, Map<String, CompiledModule> compiledModules) {
+        Map<String, CompiledModule> reusedModules = new HashMap<>(compiledModules);
+        reusedModules.keySet().removeAll(staleModules);
+        return new Generation(parent, cache, sourceRoots, staleModules, reusedModules);
+    }
+
+    private ModuleGraph graphOf(Map<String, SourceFile> currentSources) {
+        ModuleGraph graph = new ModuleGraph();
+        for (Map.Entry<String, SourceFile> entry : currentSources.entrySet()) {
+            File file = entry.getValue().getFile();
+            try {
+                graph.addSource(entry.getKey(), file.getPath(), Files.readAllBytes(file.toPath()));
+            } catch (ParseException exception) {
+                graph.addModule(entry.getKey(), new HashSet<String>());
+            } catch (IOException exception) {
+                throw new ResolutionException(exception);
+            }
+        }
+        return graph;
+    }
+
+    private SourceFile sourceFile(Path path, SourceFile previousFile) throws IOException {
+        File file = path.toFile();
+        if (previousFile != null && previousFile.getLastModified() == file.lastModified()) {
+            return previousFile;
+        } else {
+            return new SourceFile(file, file.lastModified(), Hashing.sha1().hashBytes(Files.readAllBytes(path)).toString());
+        }
+    }
+
+    private static final class CompiledModule {
+
+        private final String sourceHash;
+        private final CompilationCache.Entry entry;
+
+        public CompiledModule(byte[] source, CompilationCache.Entry entry) {
+            this.sourceHash = CompilationCache.sourceHash(source);
+            this.entry = entry;
+        }
+
+        public CompilationCache.Entry getEntry() {
+            return entry;
+        }
+
+        public boolean isCompiledFrom(byte[] source) {
+            return sourceHash.equals(CompilationCache.sourceHash(source));
+        }
+    }
+
+    static final class Generation extends SnacksClassLoader {
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final Set<String> staleModules;
+        private final Map<String, CompiledModule> reusedModules;
+        private final ConcurrentMap<String, CompiledModule> compiledModules;
+
+        public Generation(ClassLoader parent, CompilationCache cache, List<File> sourceRoots, Set<String> staleModules, Map<String, CompiledModule> reusedModules) {
+            super(parent, cache);
+            this.staleModules = staleModules;
+            this.reusedModules = reusedModules;
+            this.compiledModules = new ConcurrentHashMap<>();
+            for (File sourceRoot : sourceRoots) {
+                try {
+                    addURL(sourceRoot.toURI().toURL());
+                } catch (MalformedURLException exception) {
+                    throw new ResolutionException(exception);
+                }
+            }
+        }
+
+        @Override
+        protected CompilationCache.Entry cachedModule(String module, byte[] source) {
+            if (staleModules.contains(module)) {
+                return null;
+            }
+            CompiledModule reusedModule = reusedModules.get(module);
+            CompilationCache.Entry entry;
+            if (reusedModule != null && reusedModule.isCompiledFrom(source)) {
+                entry = reusedModule.getEntry();
+            } else {
+                entry = super.cachedModule(module, source);
+            }
+            if (entry != null) {
+                compiledModules.put(module, new CompiledModule(source, entry));
+            }
+            return entry;
+        }
+
+        @Override
+        protected void moduleCompiled(String module, byte[] source, CompilationCache.Entry entry) {
+            compiledModules.put(module, new CompiledModule(source, entry));
+            super.moduleCompiled(module, source, entry);
+        }
+
+        CompilationCache.Entry entryOf(String module) {
+            CompiledModule compiledModule = compiledModules.get(module);
+            return compiledModule == null ? null : compiledModule.getEntry();
+        }
+
+        Map<String, CompiledModule> getCompiledModules() {
+            Map<String, CompiledModule> modules = new HashMap<>(reusedModules);
+            modules.putAll(compiledModules);
+            return modules;
+        }
+    }
+
+    private static final class SourceFile {
+
+        private final File file;
+        private final long lastModified;
+        private final String hash;
+
+        public SourceFile(File file, long lastModified, String hash) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || o instanceof SourceFile && hash.equals(((SourceFile) o).hash);
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode();
+        }
+    }
+}
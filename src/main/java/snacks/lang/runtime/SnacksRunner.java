@@ -1,18 +1,23 @@
 package snacks.lang.runtime;
 
+import static java.util.Arrays.asList;
 import static snacks.lang.SnackKind.EXPRESSION;
 
 import java.util.List;
 import snacks.lang.Invokable;
 import snacks.lang.cli.CommandLineRunner;
 import snacks.lang.cli.RunnerException;
+import snacks.lang.compiler.CompilationTimings;
+import snacks.lang.compiler.ParallelModuleCompiler;
 
 public class SnacksRunner implements CommandLineRunner {
 
+    private final CompilationCache cache;
     private final SnacksClassLoader loader;
 
     public SnacksRunner() {
-        loader = new SnacksClassLoader(getClass().getClassLoader());
+        cache = CompilationCache.defaultCache();
+        loader = new SnacksClassLoader(getClass().getClassLoader(), cache);
     }
 
     @Override
@@ -27,8 +32,11 @@ public class SnacksRunner implements CommandLineRunner {
 
     @Override
     public void run(List<String> args) {
-        String name = args.remove(0) + ".main";
-        Class<?> clazz = loader.classOf(name, EXPRESSION);
+        String module = args.remove(0);
+        if (cache == null) {
+            new ParallelModuleCompiler(loader, new CompilationTimings()).compile(asList(module));
+        }
+        Class<?> clazz = loader.classOf(module + ".main", EXPRESSION);
         try {
             ((Invokable) clazz.newInstance()).invoke();
         } catch (ReflectiveOperationException exception) {
@@ -0,0 +1,51 @@
+package snacks.lang.util;
+
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+
+public class LineMap {
+
+    private final String source;
+    private final char[] data;
+    private final int begin;
+    private final int end;
+    private volatile int[] lineStarts;
+
+    public LineMap(String source, char[] data, int begin, int end) {
+        this.source = source;
+        this.data = data;
+        this.begin = begin;
+        this.end = end;
+    }
+
+    public int getColumn(int offset) {
+        return offset - lineStarts()[getLine(offset)];
+    }
+
+    public int getLine(int offset) {
+        int line = binarySearch(lineStarts(), offset);
+        return line < 0 ? -line - 2 : line;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private int[] lineStarts() {
+        if (lineStarts == null) {
+            int[] starts = new int[16];
+            int lines = 0;
+            starts[lines++] = begin;
+            for (int i = begin; i < end; i++) {
+                if (data[i] == '\n') {
+                    if (lines == starts.length) {
+                        starts = copyOf(starts, lines * 2);
+                    }
+                    starts[lines++] = i + 1;
+                }
+            }
+            lineStarts = copyOf(starts, lines);
+        }
+        return lineStarts;
+    }
+}
@@ -2,50 +2,52 @@ package snacks.lang.util;
 
 public class Position {
 
-    private final String source;
-    private final int startLine;
-    private final int startColumn;
-    private final int endLine;
-    private final int endColumn;
+    private final LineMap lines;
+    private final long offsets;
 
-    public Position(String source, int startLine, int startColumn) {
-        this.source = source;
-        this.startLine = startLine;
-        this.startColumn = startColumn;
-        this.endLine = -1;
-        this.endColumn = -1;
+    public Position(LineMap lines, int offset) {
+        this(lines, offset, -1);
     }
 
-    public Position(Position start, int endLine, int endColumn) {
-        this.source = start.source;
-        this.startLine = start.startLine;
-        this.startColumn = start.startColumn;
-        this.endLine = endLine;
-        this.endColumn = endColumn;
+    public Position(LineMap lines, int start, int end) {
+        this.lines = lines;
+        this.offsets = (long) start << 32 | end & 0xFFFFFFFFL;
+    }
+
+    public int getEnd() {
+        return (int) offsets;
     }
 
     public int getEndColumn() {
-        return endColumn;
+        return getEnd() == -1 ? -1 : lines.getColumn(getEnd());
     }
 
     public int getEndLine() {
-        return endLine;
+        return getEnd() == -1 ? -1 : lines.getLine(getEnd());
+    }
+
+    public String getSource() {
+        return lines.getSource();
+    }
+
+    public int getStart() {
+        return (int) (offsets >>> 32);
     }
 
     public int getStartColumn() {
-        return startColumn;
+        return lines.getColumn(getStart());
     }
 
     public int getStartLine() {
-        return startLine;
+        return lines.getLine(getStart());
     }
 
     @Override
     public String toString() {
-        if (endLine == -1) {
-            return "'" + source + "' (" + startLine + "," + startColumn + ")";
+        if (getEnd() == -1) {
+            return "'" + getSource() + "' (" + getStartLine() + "," + getStartColumn() + ")";
         } else {
-            return "'" + source + "' (" + startLine + "," + startColumn + "-" + endLine + "," + endColumn + ")";
+            return "'" + getSource() + "' (" + getStartLine() + "," + getStartColumn() + "-" + getEndLine() + "," + getEndColumn() + ")";
         }
     }
 }
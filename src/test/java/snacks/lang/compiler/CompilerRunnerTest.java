@@ -0,0 +1,102 @@
+package snacks.lang.compiler;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.SnackKind.EXPRESSION;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.jar.JarFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import snacks.lang.runtime.SnacksClassLoader;
+
+public class CompilerRunnerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private File sourceRoot;
+    private File jar;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceRoot = folder.newFolder("src");
+        jar = new File(folder.getRoot(), "snacks.jar");
+        write("example/numbers.snack",
+            "double :: Integer -> Integer",
+            "double = (x) -> x * 2",
+            "<+> :: Integer -> Integer -> Integer",
+            "<+> infix left 10",
+            "<+> = (x y) -> x + y"
+        );
+        write("example/app.snack",
+            "import example.numbers._",
+            "answer = double 20 <+> 2"
+        );
+        write("example/report.snack",
+            "import example.app._",
+            "import example.numbers.double",
+            "summary = double answer"
+        );
+        new CompilerRunner().compile(sourceRoot, jar);
+    }
+
+    @Test
+    public void shouldWriteClassesForEveryModule() throws IOException {
+        try (JarFile file = new JarFile(jar)) {
+            assertThat(file.getEntry("example/numbers/double.class"), notNullValue());
+            assertThat(file.getEntry("example/app/answer.class"), notNullValue());
+        }
+    }
+
+    @Test
+    public void shouldWriteModuleIndex() throws IOException {
+        try (JarFile file = new JarFile(jar)) {
+            assertThat(file.getEntry("META-INF/snacks/example.numbers.idx"), notNullValue());
+            assertThat(file.getEntry("META-INF/snacks/example.app.idx"), notNullValue());
+        }
+    }
+
+    @Test
+    public void shouldLoadPrecompiledSnacksWithoutSources() throws Exception {
+        URLClassLoader classPath = new URLClassLoader(new URL[] { jar.toURI().toURL() }, getClass().getClassLoader());
+        SnacksClassLoader loader = new SnacksClassLoader(classPath);
+        Class<?> answer = loader.classOf("example.app.answer", EXPRESSION);
+        assertThat((Integer) answer.getMethod("instance").invoke(null), equalTo(42));
+        assertThat(loader.classOf("example.numbers.<+>", EXPRESSION), notNullValue());
+        assertThat(loader.isOperator("<+>"), equalTo(true));
+    }
+
+    @Test
+    public void shouldRegisterIndexedOperatorsWithoutLoadingTheirClasses() throws Exception {
+        URLClassLoader classPath = new URLClassLoader(new URL[] { jar.toURI().toURL() }, getClass().getClassLoader());
+        SnacksClassLoader loader = new SnacksClassLoader(classPath);
+        assertThat(loader.classOf("example.numbers.double", EXPRESSION), notNullValue());
+        assertThat(loader.isOperator("<+>"), equalTo(true));
+    }
+
+    @Test
+    public void shouldCompileModulesAfterTheirImports() throws Exception {
+        URLClassLoader classPath = new URLClassLoader(new URL[] { jar.toURI().toURL() }, getClass().getClassLoader());
+        SnacksClassLoader loader = new SnacksClassLoader(classPath);
+        Class<?> summary = loader.classOf("example.report.summary", EXPRESSION);
+        assertThat((Integer) summary.getMethod("instance").invoke(null), equalTo(84));
+    }
+
+    private void write(String path, String... lines) throws IOException {
+        File file = new File(sourceRoot, path);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            for (String line : lines) {
+                output.write((line + "\n").getBytes(Charset.forName("UTF-8")));
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package snacks.lang.compiler;
+
+import static java.util.Collections.frequency;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static snacks.lang.Types.integerType;
+import static snacks.lang.parser.CompilerUtil.translate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import snacks.lang.Snack;
+import snacks.lang.SnackDefinition;
+import snacks.lang.SnackKind;
+import snacks.lang.SnackType;
+import snacks.lang.Type;
+import snacks.lang.parser.SymbolEnvironment;
+import snacks.lang.runtime.SnacksClassLoader;
+
+public class CompilerTest {
+
+    private static final String[] source = {
+        "adder = (x) -> {",
+        "    var z = x + 1",
+        "    (y) -> z + y",
+        "}",
+        "multiplier = (x) -> (y) -> x * y",
+        "main = () -> say $ adder 4 31",
+    };
+
+    private static final String[] applySource = {
+        "double :: Integer -> Integer",
+        "double = (x) -> x * 2",
+        "quadruple = (x) -> double (double x)",
+    };
+
+    private SnacksClassLoader loader;
+
+    @Before
+    public void setUp() {
+        loader = new SnacksClassLoader();
+    }
+
+    @Test
+    public void shouldConsolidateClosuresIntoOneClassPerModule() throws ReflectiveOperationException {
+        List<SnackDefinition> definitions = compile(CompilerOption.defaultOptions());
+        assertThat(javaNames(definitions), hasItem("test.¢Closures"));
+        assertThat(javaNames(definitions).size(), equalTo(4));
+        loader.defineSnacks(definitions);
+        assertThat(apply("test.adder", 4, 31), equalTo((Object) 36));
+        assertThat(apply("test.multiplier", 6, 7), equalTo((Object) 42));
+    }
+
+    @Test
+    public void shouldCompileClosuresSeparatelyWithoutConsolidation() throws ReflectiveOperationException {
+        Set<CompilerOption> options = EnumSet.copyOf(CompilerOption.defaultOptions());
+        options.remove(CompilerOption.CONSOLIDATE_CLOSURES);
+        List<SnackDefinition> definitions = compile(options);
+        assertThat(javaNames(definitions), not(hasItem("test.¢Closures")));
+        loader.defineSnacks(definitions);
+        assertThat(apply("test.adder", 4, 31), equalTo((Object) 36));
+        assertThat(apply("test.multiplier", 6, 7), equalTo((Object) 42));
+    }
+
+    @Test
+    public void shouldInvokeMonomorphicDeclarationDirectly() throws ReflectiveOperationException {
+        List<SnackDefinition> definitions = compile(CompilerOption.defaultOptions(), applySource);
+        assertThat(frequency(virtualCalls(definitions), "test/double.apply"), equalTo(2));
+        loader.defineSnacks(definitions);
+        assertThat(apply("test.quadruple", 5), equalTo((Object) 20));
+    }
+
+    @Test
+    public void shouldDispatchApplicationsWithoutStaticApply() throws ReflectiveOperationException {
+        Set<CompilerOption> options = EnumSet.copyOf(CompilerOption.defaultOptions());
+        options.remove(CompilerOption.STATIC_APPLY);
+        List<SnackDefinition> definitions = compile(options, applySource);
+        assertThat(frequency(virtualCalls(definitions), "test/double.apply"), equalTo(0));
+        loader.defineSnacks(definitions);
+        assertThat(apply("test.quadruple", 5), equalTo((Object) 20));
+    }
+
+    @Test
+    public void shouldNotCacheErrorsFromConstantEvaluation() throws ReflectiveOperationException {
+        Flaky.calls.set(0);
+        loader.loadClass(Flaky.class.getName());
+        loader.defineSnacks(compile(CompilerOption.defaultOptions(), "import snacks.lang.compiler._", "answer = flaky"));
+        Method instance = loader.loadClass("test.answer").getMethod("instance");
+        try {
+            instance.invoke(null);
+            fail("Expected StackOverflowError");
+        } catch (InvocationTargetException exception) {
+            assertThat(exception.getCause(), instanceOf(StackOverflowError.class));
+        }
+        assertThat(instance.invoke(null), equalTo((Object) 42));
+    }
+
+    private Object apply(String function, Object... arguments) throws ReflectiveOperationException {
+        Object result = loader.loadClass(function).getMethod("instance").invoke(null);
+        for (Object argument : arguments) {
+            result = result.getClass().getMethod("apply", Object.class).invoke(result, argument);
+        }
+        return result;
+    }
+
+    private List<SnackDefinition> compile(Set<CompilerOption> options) {
+        return compile(options, source);
+    }
+
+    private List<SnackDefinition> compile(Set<CompilerOption> options, String... lines) {
+        return new Compiler(loader, options).compile(translate(new SymbolEnvironment(loader), lines));
+    }
+
+    private List<String> virtualCalls(List<SnackDefinition> definitions) {
+        List<String> calls = new ArrayList<>();
+        for (SnackDefinition definition : definitions) {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(definition.getBytes()).accept(classNode, 0);
+            for (Object method : classNode.methods) {
+                for (AbstractInsnNode instruction : ((MethodNode) method).instructions.toArray()) {
+                    if (instruction.getOpcode() == INVOKEVIRTUAL) {
+                        MethodInsnNode invocation = (MethodInsnNode) instruction;
+                        calls.add(invocation.owner + '.' + invocation.name);
+                    }
+                }
+            }
+        }
+        return calls;
+    }
+
+    private List<String> javaNames(List<SnackDefinition> definitions) {
+        List<String> names = new ArrayList<>();
+        for (SnackDefinition definition : definitions) {
+            names.add(definition.getJavaName());
+        }
+        return names;
+    }
+
+    @Snack(name = "flaky", kind = SnackKind.EXPRESSION)
+    public static final class Flaky {
+
+        private static final AtomicInteger calls = new AtomicInteger();
+
+        public static Object instance() {
+            if (calls.incrementAndGet() <= 2) {
+                throw new StackOverflowError();
+            }
+            return 42;
+        }
+
+        @SnackType
+        public static Type type() {
+            return integerType();
+        }
+    }
+}
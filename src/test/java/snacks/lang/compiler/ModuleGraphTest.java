@@ -0,0 +1,74 @@
+package snacks.lang.compiler;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModuleGraphTest {
+
+    private ModuleGraph graph;
+
+    @Before
+    public void setUp() {
+        graph = new ModuleGraph();
+    }
+
+    @Test
+    public void shouldFindImportedModules() throws UnsupportedEncodingException {
+        graph.addModule("example.numbers", Collections.<String>emptyList());
+        graph.addModule("example.strings", Collections.<String>emptyList());
+        graph.addModule("example.lists", Collections.<String>emptyList());
+        graph.addSource("example.app", "app.snack", (
+            "import example.numbers._\n"
+                + "import example.strings.upper\n"
+                + "from example.lists import head, tail\n"
+                + "answer = 42\n"
+        ).getBytes("UTF-8"));
+        assertThat(graph.getDependencies("example.app"), containsInAnyOrder("example.numbers", "example.strings", "example.lists"));
+    }
+
+    @Test
+    public void shouldIgnoreModulesOutsideGraph() {
+        graph.addModule("example.app", asList("snacks.lang", "example.app"));
+        assertThat(graph.getDependencies("example.app").isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void shouldOrderComponentsAfterDependencies() {
+        graph.addModule("example.app", asList("example.numbers", "example.strings"));
+        graph.addModule("example.strings", asList("example.numbers"));
+        graph.addModule("example.numbers", Collections.<String>emptyList());
+        List<List<String>> components = graph.getComponents();
+        assertThat(components.size(), equalTo(3));
+        assertThat(indexOf(components, "example.numbers"), lessThan(indexOf(components, "example.strings")));
+        assertThat(indexOf(components, "example.strings"), lessThan(indexOf(components, "example.app")));
+    }
+
+    @Test
+    public void shouldGroupCyclicModulesIntoOneComponent() {
+        graph.addModule("example.app", asList("example.even"));
+        graph.addModule("example.even", asList("example.odd"));
+        graph.addModule("example.odd", asList("example.even"));
+        List<List<String>> components = graph.getComponents();
+        assertThat(components.size(), equalTo(2));
+        assertThat(components.get(0), containsInAnyOrder("example.even", "example.odd"));
+        assertThat(components.get(1), equalTo(asList("example.app")));
+    }
+
+    private int indexOf(List<List<String>> components, String module) {
+        for (int i = 0; i < components.size(); i++) {
+            if (components.get(i).contains(module)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Missing module " + module);
+    }
+}
@@ -0,0 +1,96 @@
+package snacks.lang.compiler;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.ast.AstFactory.constant;
+import static snacks.lang.ast.AstFactory.declaration;
+import static snacks.lang.ast.AstFactory.expression;
+import static snacks.lang.parser.TranslatorMatcher.defines;
+
+import java.util.Collection;
+import org.junit.Before;
+import org.junit.Test;
+import snacks.lang.ast.Apply;
+import snacks.lang.ast.AstNode;
+import snacks.lang.ast.DeclaredExpression;
+import snacks.lang.ast.ExpressionConstant;
+import snacks.lang.ast.Function;
+import snacks.lang.ast.NamedNode;
+import snacks.lang.ast.Reference;
+import snacks.lang.parser.CompilerUtil;
+import snacks.lang.parser.SymbolEnvironment;
+import snacks.lang.runtime.SnacksClassLoader;
+
+public class OptimizerTest {
+
+    private SnacksClassLoader loader;
+
+    @Before
+    public void setUp() {
+        loader = new SnacksClassLoader();
+    }
+
+    @Test
+    public void shouldFoldIntegerArithmetic() {
+        assertThat(optimize("example = 2 + 3 * 4"), defines(declaration("test.example", expression(constant(14)))));
+    }
+
+    @Test
+    public void shouldFoldMixedArithmetic() {
+        assertThat(optimize("example = 3 / 2 + 0.5"), defines(declaration("test.example", expression(constant(1.5)))));
+    }
+
+    @Test
+    public void shouldFoldStringConcatenation() {
+        assertThat(optimize("example = 'answer: ' + 42"), defines(declaration("test.example", expression(constant("answer: 42")))));
+    }
+
+    @Test
+    public void shouldFoldComparisons() {
+        assertThat(optimize("example = 2 < 3 and not (4 == 5)"), defines(declaration("test.example", expression(constant(true)))));
+    }
+
+    @Test
+    public void shouldNotFoldFailingApplication() {
+        assertThat(valueOf(optimize("example = 1 / 0"), "test.example"), instanceOf(Apply.class));
+    }
+
+    @Test
+    public void shouldFoldConstantSideOfLogicalOr() {
+        AstNode body = ((Function) bodyOf(optimize("example = (x) -> False or x == 3"), "test.example")).getBody();
+        assertThat(body, instanceOf(Apply.class));
+        assertThat(((Apply) body).getFunction(), instanceOf(Apply.class));
+    }
+
+    @Test
+    public void shouldRemoveDeadGuardCases() {
+        Collection<NamedNode> nodes = optimize(
+            "example = (x) -> if False: 'nope' else if 1 < 2: x else 'never' end"
+        );
+        assertThat(((Function) bodyOf(nodes, "test.example")).getBody(), instanceOf(Reference.class));
+    }
+
+    @Test
+    public void shouldPreserveDeclaredType() {
+        Collection<NamedNode> nodes = optimize("example = 2 + 2");
+        assertThat(bodyOf(nodes, "test.example").getType(), equalTo(constant(4).getType()));
+    }
+
+    private AstNode bodyOf(Collection<NamedNode> nodes, String name) {
+        for (NamedNode node : nodes) {
+            if (node.getQualifiedName().equals(name)) {
+                return ((DeclaredExpression) node).getBody();
+            }
+        }
+        throw new AssertionError("Missing declaration " + name);
+    }
+
+    private Collection<NamedNode> optimize(String... inputs) {
+        return new Optimizer(loader).optimize(CompilerUtil.translate(new SymbolEnvironment(loader), inputs));
+    }
+
+    private AstNode valueOf(Collection<NamedNode> nodes, String name) {
+        return ((ExpressionConstant) bodyOf(nodes, name)).getValue();
+    }
+}
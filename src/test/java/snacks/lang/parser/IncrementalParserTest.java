@@ -0,0 +1,150 @@
+package snacks.lang.parser;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static snacks.lang.parser.CompilerUtil.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+import beaver.Symbol;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import snacks.lang.parser.syntax.Module;
+
+public class IncrementalParserTest {
+
+    private static final String source = "import snacks.lang._\n"
+        + "double :: Integer -> Integer\n"
+        + "double = (x) -> x * 2\n"
+        + "triple = (x) -> {\n"
+        + "    x * 3\n"
+        + "}\n"
+        + "answer = 42\n"
+        + "main = () -> say $ double answer\n";
+
+    @Rule
+    public final SyntaxLog log = new SyntaxLog();
+    private IncrementalParser parser;
+    private List<Symbol> elements;
+
+    @Before
+    public void setUp() {
+        parser = new IncrementalParser("test", source);
+        elements = parser.getModule().getElements();
+    }
+
+    @Test
+    public void shouldParseWholeSourceInitially() {
+        assertThat(parser.getModule(), equalTo(parse(source)));
+        assertThat(parser.getChangedElements(), equalTo(elements));
+        assertThat(parser.getRemovedElements(), empty());
+    }
+
+    @Test
+    public void shouldReuseDeclarationsOutsideOfEdit() {
+        Module module = edit("42", "43");
+        assertThat(module, equalTo(parse(parser.getText())));
+        assertThat(parser.getChangedElements(), equalTo(module.getElements().subList(4, 5)));
+        assertThat(parser.getRemovedElements(), equalTo(elements.subList(4, 5)));
+        for (int i = 0; i < elements.size(); i++) {
+            if (i != 4) {
+                assertThat(module.getElements().get(i), sameInstance(elements.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportInsertedDeclaration() {
+        Module module = edit("answer = 42\n", "answer = 42\nquestion = 'unknown'\n");
+        assertThat(module, equalTo(parse(parser.getText())));
+        assertThat(module.getElements().size(), equalTo(elements.size() + 1));
+        assertThat(parser.getChangedElements(), equalTo(module.getElements().subList(5, 6)));
+        assertThat(parser.getRemovedElements(), empty());
+    }
+
+    @Test
+    public void shouldReportRemovedDeclaration() {
+        Module module = edit("answer = 42\n", "");
+        assertThat(module.getElements().size(), equalTo(elements.size() - 1));
+        assertThat(parser.getChangedElements(), empty());
+        assertThat(parser.getRemovedElements(), equalTo(elements.subList(4, 5)));
+    }
+
+    @Test
+    public void shouldTrackOffsetsAcrossEdits() {
+        edit("x * 2", "x * 2 + 1");
+        edit("say $ double", "say $ triple");
+        Module module = edit("* 3", "* 4");
+        assertThat(module, equalTo(parse(parser.getText())));
+        assertThat(parser.getChangedElements(), equalTo(module.getElements().subList(3, 4)));
+        assertThat(module.getElements().get(0), sameInstance(elements.get(0)));
+        assertThat(module.getElements().get(4), sameInstance(elements.get(4)));
+    }
+
+    @Test
+    public void shouldReportCurrentStartOfReusedElement() {
+        Module module = edit("x * 2", "x * 2 + 1");
+        assertThat(module.getElements().get(4), sameInstance(elements.get(4)));
+        assertThat(parser.getElementOffset(4), equalTo(parser.getText().indexOf("answer = 42")));
+        edit("import snacks.lang._\n", "");
+        assertThat(parser.getElementOffset(3), equalTo(parser.getText().indexOf("answer = 42")));
+    }
+
+    @Test
+    public void shouldJoinDeclarationsWhenSeparatorIsRemoved() {
+        Module module = edit("}\nanswer", "} ; answer");
+        assertThat(module, equalTo(parse(parser.getText())));
+        assertThat(module.getElements().size(), equalTo(elements.size()));
+    }
+
+    @Test
+    public void shouldRejectEditThatNeedsRecovery() {
+        try {
+            edit("x * 2\ntriple", "x * 2 + triple");
+            fail("Expected parse failure");
+        } catch (ParseException exception) {
+            assertThat(parser.getModule().getElements(), equalTo(elements));
+        }
+    }
+
+    @Test
+    public void shouldReportSyntaxErrorsOnceWithFileLines() {
+        try {
+            edit("answer = 42", "answer = 42 = 43");
+            fail("Expected parse failure");
+        } catch (ParseException exception) {
+            List<String> messages = new ArrayList<>(log.getMessages());
+            assertThat(messages, not(empty()));
+            assertThat(messages, everyItem(containsString("'test' (6,")));
+            log.getMessages().clear();
+            parse(parser.getText());
+            assertThat(messages, equalTo(log.getMessages()));
+        }
+    }
+
+    @Test
+    public void shouldRecoverAfterFailedEdit() {
+        int offset = parser.getText().indexOf("}\n");
+        try {
+            parser.edit(offset, 1, "");
+            fail("Expected parse failure");
+        } catch (ParseException exception) {
+            assertThat(parser.getModule().getElements(), equalTo(elements));
+        }
+        Module module = parser.edit(offset, 0, "}");
+        assertThat(parser.getText(), equalTo(source));
+        assertThat(parser.getChangedElements(), empty());
+        assertThat(module.getElements(), equalTo(elements));
+    }
+
+    private Module edit(String target, String replacement) {
+        return parser.edit(parser.getText().indexOf(target), target.length(), replacement);
+    }
+}
@@ -0,0 +1,42 @@
+package snacks.lang.parser;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.parser.Terminals.IDENTIFIER;
+
+import beaver.Symbol;
+import org.junit.Rule;
+import org.junit.Test;
+import snacks.lang.util.LineMap;
+
+public class ParserEventsTest {
+
+    @Rule
+    public final SyntaxLog log = new SyntaxLog();
+
+    @Test
+    public void shouldReportLineAndColumnOfRemovedPhrase() {
+        ParserEvents events = new ParserEvents();
+        char[] data = "answer = 42\nquestion = )(\n".toCharArray();
+        events.setLineMap(new LineMap("test", data, 0, data.length));
+        events.errorPhraseRemoved(new Symbol(IDENTIFIER, 23, 24));
+        assertThat(log.getMessages(), contains(endsWith("'test' (1,11-1,12)")));
+    }
+
+    @Test
+    public void shouldReportOffsetWithoutLineMap() {
+        new ParserEvents().errorPhraseRemoved(new Symbol(IDENTIFIER, 23, 24));
+        assertThat(log.getMessages(), contains(endsWith("(offset 23)")));
+    }
+
+    @Test
+    public void shouldCountErrorsQuietly() {
+        ParserEvents events = new ParserEvents(true);
+        events.errorPhraseRemoved(new Symbol(IDENTIFIER, 23, 24));
+        assertThat(events.getErrors(), equalTo(1));
+        assertThat(log.getMessages(), empty());
+    }
+}
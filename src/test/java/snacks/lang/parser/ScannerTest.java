@@ -2,6 +2,8 @@ package snacks.lang.parser;
 
 import static org.apache.commons.lang.StringUtils.join;
 import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static snacks.lang.parser.Terminals.*;
@@ -9,11 +11,21 @@ import static snacks.lang.parser.TokenKindMatcher.hasKind;
 import static snacks.lang.parser.TokenValueMatcher.hasValue;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import snacks.lang.util.Position;
 
 public class ScannerTest {
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void shouldGetInteger() {
         assertThat(scan("123").nextToken(), hasKind(INTEGER));
@@ -330,6 +342,78 @@ public class ScannerTest {
         assertThat(scan(" `rem` 3").nextToken(), both(hasKind(QUOTED_OPERATOR)).and(hasValue("rem")));
     }
 
+    @Test
+    public void shouldScanInputLongerThanInitialBuffer() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append("value").append(i).append(" = ").append(i).append('\n');
+        }
+        builder.append("last");
+        Scanner scanner = scan(builder.toString());
+        Token token;
+        do {
+            token = scanner.nextToken();
+        } while (token.getId() != EOF && !"last".equals(token.value));
+        assertThat(token, both(hasKind(IDENTIFIER)).and(hasValue("last")));
+    }
+
+    @Test
+    public void shouldScanCharSequence() {
+        Scanner scanner = new Scanner("test", CharBuffer.wrap("ignored bananas").subSequence(8, 15));
+        assertThat(scanner.nextToken(), both(hasKind(IDENTIFIER)).and(hasValue("bananas")));
+        assertThat(scanner.nextToken(), hasKind(EOF));
+    }
+
+    @Test
+    public void shouldScanMappedFile() throws IOException {
+        File file = folder.newFile("bananas.snack");
+        Files.write(file.toPath(), "bananas = 42".getBytes(Charset.forName("UTF-8")));
+        Scanner scanner = Scanner.mapFile(file);
+        assertThat(scanner.nextToken(), both(hasKind(IDENTIFIER)).and(hasValue("bananas")));
+        assertThat(scanner.nextToken(), hasKind(ASSIGN));
+        assertThat(scanner.nextToken(), hasKind(INTEGER));
+    }
+
+    @Test
+    public void shouldResolveTokenPositionFromOffsets() {
+        Scanner scanner = scan("apples", "bananas = 3");
+        scanner.nextToken();
+        scanner.nextToken();
+        scanner.nextToken();
+        Position position = scanner.nextToken().getPosition();
+        assertThat(position.getStart(), equalTo(14));
+        assertThat(position.getStartLine(), equalTo(1));
+        assertThat(position.getStartColumn(), equalTo(7));
+        assertThat(position.getEndLine(), equalTo(1));
+        assertThat(position.getEndColumn(), equalTo(9));
+    }
+
+    @Test
+    public void shouldInternRepeatedIdentifiers() {
+        Scanner scanner = scan("bananas bananas");
+        Object first = scanner.nextToken().value;
+        assertThat(scanner.nextToken().value, sameInstance(first));
+    }
+
+    @Test
+    public void shouldInternMoreIdentifiersThanInitialCapacity() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("value").append(i).append(' ');
+        }
+        Scanner scanner = scan(builder.toString());
+        for (int i = 0; i < 1000; i++) {
+            assertThat(scanner.nextToken(), hasValue("value" + i));
+        }
+    }
+
+    @Test
+    public void shouldNotMatchKeywordPrefix() {
+        Scanner scanner = scan("ending end");
+        assertThat(scanner.nextToken(), both(hasKind(IDENTIFIER)).and(hasValue("ending")));
+        assertThat(scanner.nextToken(), hasKind(END));
+    }
+
     private Scanner scan(String... inputs) {
         return new Scanner("test", new ByteArrayInputStream(join(inputs, '\n').getBytes(Charset.forName("UTF-8"))));
     }
@@ -0,0 +1,46 @@
+package snacks.lang.parser;
+
+import static java.util.logging.Logger.getLogger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.rules.ExternalResource;
+
+public class SyntaxLog extends ExternalResource {
+
+    private final Logger logger = getLogger("SYNTAX");
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+            // intentionally empty
+        }
+
+        @Override
+        public void close() {
+            // intentionally empty
+        }
+    };
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    @Override
+    protected void after() {
+        logger.removeHandler(handler);
+    }
+
+    @Override
+    protected void before() {
+        logger.addHandler(handler);
+    }
+}
@@ -0,0 +1,95 @@
+package snacks.lang.runtime;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import snacks.lang.SnackDefinition;
+
+public class CompilationCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private CompilationCache cache;
+    private byte[] source;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = new CompilationCache(folder.newFolder("cache"), "1");
+        source = "example = 2 + 2".getBytes("UTF-8");
+        cache.put("test", source, new CompilationCache.Entry(
+            asList(new SnackDefinition("test.example", new byte[] { 1, 2, 3 })),
+            new HashSet<>(asList("test.example#EXPRESSION")),
+            Collections.singletonMap("snacks.lang", "1234")
+        ));
+    }
+
+    @Test
+    public void shouldReturnStoredDefinitions() {
+        CompilationCache.Entry entry = cache.get("test", source);
+        assertThat(entry.getDefinitions().size(), equalTo(1));
+        assertThat(entry.getDefinitions().get(0).getJavaName(), equalTo("test.example"));
+        assertThat(entry.getDefinitions().get(0).getBytes(), equalTo(new byte[] { 1, 2, 3 }));
+    }
+
+    @Test
+    public void shouldRecordRegisteredSnacks() {
+        assertThat(cache.get("test", source).getSnacks(), equalTo(Collections.singleton("test.example#EXPRESSION")));
+    }
+
+    @Test
+    public void shouldRecordImportedModuleHashes() {
+        assertThat(cache.get("test", source).getImports(), equalTo(Collections.singletonMap("snacks.lang", "1234")));
+    }
+
+    @Test
+    public void shouldMissWhenSourceChanges() throws IOException {
+        assertThat(cache.get("test", "example = 2 + 3".getBytes("UTF-8")), nullValue());
+    }
+
+    @Test
+    public void shouldMissWhenModuleChanges() {
+        assertThat(cache.get("other", source), nullValue());
+    }
+
+    @Test
+    public void shouldMissWhenCompilerVersionChanges() throws IOException {
+        assertThat(new CompilationCache(new File(folder.getRoot(), "cache"), "2").get("test", source), nullValue());
+    }
+
+    @Test
+    public void shouldFingerprintEveryClassTheCompilerOutputDependsOn() throws IOException {
+        File classes = folder.newFolder("classes");
+        write(classes, "snacks/lang/compiler/Compiler.class", 1);
+        write(classes, "snacks/lang/Maybe.class", 2);
+        write(classes, "me/qmx/jitescript/JiteClass.class", 3);
+        String fingerprint = fingerprint(classes);
+        assertThat(fingerprint(classes), equalTo(fingerprint));
+        write(classes, "snacks/lang/Maybe.class", 4);
+        assertThat(fingerprint(classes), not(equalTo(fingerprint)));
+        fingerprint = fingerprint(classes);
+        write(classes, "me/qmx/jitescript/JiteClass.class", 5);
+        assertThat(fingerprint(classes), not(equalTo(fingerprint)));
+    }
+
+    private String fingerprint(File classes) throws IOException {
+        return new CompilerFingerprint().fingerprint(asList(classes));
+    }
+
+    private void write(File root, String path, int content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[] { (byte) content });
+    }
+}
@@ -0,0 +1,63 @@
+package snacks.lang.runtime;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.SnackKind.EXPRESSION;
+import static snacks.lang.SnackKind.TYPE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import snacks.lang.Not;
+import snacks.lang.OperatorRegistry;
+import snacks.lang.Plus;
+import snacks.lang.SnacksDouble;
+
+public class ModuleIndexTest {
+
+    private ModuleIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ModuleIndex("snacks.lang");
+        index.add(Plus.class);
+        index.add(Not.class);
+        index.add(SnacksDouble.class);
+    }
+
+    @Test
+    public void shouldFindEntryByNameAndKind() {
+        assertThat(index.find("+", EXPRESSION).getClassName(), equalTo(Plus.class.getName()));
+        assertThat(index.find("+", TYPE), nullValue());
+    }
+
+    @Test
+    public void shouldRecordJavaTypes() {
+        assertThat(index.find("Double", TYPE).getJavaClass(), equalTo(Double.class.getName()));
+    }
+
+    @Test
+    public void shouldSkipClassesWithoutSnacks() {
+        assertThat(index.add(String.class), equalTo(false));
+    }
+
+    @Test
+    public void shouldRoundTripEntries() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        index.write(output);
+        ModuleIndex copy = new ModuleIndex("snacks.lang");
+        copy.read(new ByteArrayInputStream(output.toByteArray()));
+        assertThat(copy.getEntries(), equalTo(index.getEntries()));
+    }
+
+    @Test
+    public void shouldRegisterOperators() {
+        OperatorRegistry operators = new OperatorRegistry();
+        index.registerOperators(operators);
+        assertThat(operators.isOperator("+"), equalTo(true));
+        assertThat(operators.getOperator("not").isPrefix(), equalTo(true));
+    }
+}
@@ -325,6 +325,44 @@ public class RuntimeTest extends SnacksTest {
         }
     }
 
+    @Test
+    public void shouldEvaluateConstantOnce() {
+        run(
+            "answer = begin",
+            "    say 'evaluating'",
+            "    42",
+            "end",
+            "main = {",
+            "    assert $ answer == 42",
+            "    assert $ answer == 42",
+            "}"
+        );
+        verifyOut("evaluating");
+    }
+
+    @Test
+    public void shouldRethrowFailedConstantEvaluation() {
+        run(
+            "broken = begin",
+            "    say 'evaluating'",
+            "    hurl 'oops'",
+            "    42",
+            "end",
+            "attempt = (label) -> begin",
+            "    say broken",
+            "embrace e ->",
+            "    say label",
+            "end",
+            "main = {",
+            "    attempt 'first'",
+            "    attempt 'second'",
+            "}"
+        );
+        verifyOut("evaluating");
+        verifyOut("first");
+        verifyOut("second");
+    }
+
     @Test
     public void shouldCompileNestedExceptional() {
         run(
@@ -818,6 +856,48 @@ public class RuntimeTest extends SnacksTest {
         );
     }
 
+    @Test
+    public void shouldEliminateSelfTailCalls() {
+        run(
+            "countDown :: Integer -> Integer -> Integer",
+            "loop :: Integer -> Integer",
+            "countDown = (n acc) ->",
+            "    if n == 0:",
+            "        acc",
+            "    else",
+            "        countDown (n - 1) (acc + 2)",
+            "    end",
+            "loop = (n) ->",
+            "    if n > 0:",
+            "        loop (n - 1)",
+            "    else",
+            "        n",
+            "    end",
+            "main = {",
+            "    assert $ countDown 200000 0 == 400000",
+            "    assert $ loop 200000 == 0",
+            "}"
+        );
+    }
+
+    @Test
+    public void shouldEliminateTailCallsInPatternFunctions() {
+        run(
+            "data Chain = End | Link Integer Chain",
+            "build :: Integer -> Chain -> Chain",
+            "total :: Chain -> Integer -> Integer",
+            "build = (n chain) ->",
+            "    if n == 0:",
+            "        chain",
+            "    else",
+            "        build (n - 1) (Link n chain)",
+            "    end",
+            "total = ?(End, acc) -> acc",
+            "total = ?(Link value rest, acc) -> total rest (acc + value)",
+            "main = () -> assert $ total (build 100000 End) 0 == 705082704"
+        );
+    }
+
     @Test
     public void shouldUseFunctionAsOperator() {
         run(
@@ -827,6 +907,97 @@ public class RuntimeTest extends SnacksTest {
         );
     }
 
+    @Test
+    public void shouldDispatchApplyToManyArgumentTypes() {
+        run(
+            "describe = (x) -> string x",
+            "main = {",
+            "    assert $ describe 1 == '1'",
+            "    assert $ describe 2.5 == '2.5'",
+            "    assert $ describe True == 'true'",
+            "    assert $ describe (1,) == '(1,)'",
+            "    assert $ describe (1, 2) == '(1, 2)'",
+            "    assert $ describe (1, 2, 3) == '(1, 2, 3)'",
+            "    assert $ describe (1, 2, 3, 4) == '(1, 2, 3, 4)'",
+            "    assert $ describe (1, 2, 3, 4, 5) == '(1, 2, 3, 4, 5)'",
+            "    assert $ describe (1, 2, 3, 4, 5, 6) == '(1, 2, 3, 4, 5, 6)'",
+            "    assert $ describe (1, 2, 3, 4, 5, 6, 7) == '(1, 2, 3, 4, 5, 6, 7)'",
+            "    assert $ describe 3 == '3'",
+            "    assert $ describe (4, 5) == '(4, 5)'",
+            "}"
+        );
+    }
+
+    @Test
+    public void shouldApplyCurriedFunctionPartiallyAndSaturated() {
+        run(
+            "combine = (w x y) -> (z) -> w + x * y - z",
+            "main = {",
+            "    var partial = combine 1 2",
+            "    assert $ combine 1 2 3 4 == 3",
+            "    assert $ partial 3 4 == 3",
+            "    assert $ (combine 1) 2 3 5 == 2",
+            "}"
+        );
+    }
+
+    @Test
+    public void shouldComputeMixedArithmetic() {
+        run(
+            "main = {",
+            "    var x = 7",
+            "    var y = 2.5",
+            "    assert $ x + 3 * x - 1 == 27",
+            "    assert $ x / 2 == 3",
+            "    assert $ x % 4 == 3",
+            "    assert $ x * y == 17.5",
+            "    assert $ y - x / 2 == -0.5",
+            "    assert $ 2 ** 3 == 8.0",
+            "    assert $ 'x = ' + x * 2 == 'x = 14'",
+            "}"
+        );
+    }
+
+    @Test
+    public void shouldBranchOnPrimitiveComparisons() {
+        run(
+            "main = {",
+            "    var x = 3",
+            "    var y = 2.5",
+            "    assert $ y < x and x <= 3 and not (x > 3)",
+            "    assert $ x >= y or False",
+            "    assert $ not (x == 3) or y != 2.5 or x != 4",
+            "    assert $ not (x < y) and not (x == 4 or y > 3.0)",
+            "    var count = 0",
+            "    while count < 10 and not (count == 5):",
+            "        count = count + 1",
+            "    end",
+            "    assert $ count == 5",
+            "}"
+        );
+    }
+
+    @Test
+    public void shouldDispatchGetToManyRecordTypes() {
+        run(
+            "data Fruit = Apple { name: String } | Banana { name: String } | Cherry { name: String } | Date { name: String } | Elderberry { name: String } | Fig { name: String } | Grape { name: String } | Honeydew { name: String } | Kiwi { name: String } | Lemon { name: String }",
+            "nameOf = (x:Fruit) -> x.name",
+            "main = {",
+            "    assert $ nameOf (Apple { name = 'apple' }) == 'apple'",
+            "    assert $ nameOf (Banana { name = 'banana' }) == 'banana'",
+            "    assert $ nameOf (Cherry { name = 'cherry' }) == 'cherry'",
+            "    assert $ nameOf (Date { name = 'date' }) == 'date'",
+            "    assert $ nameOf (Elderberry { name = 'elderberry' }) == 'elderberry'",
+            "    assert $ nameOf (Fig { name = 'fig' }) == 'fig'",
+            "    assert $ nameOf (Grape { name = 'grape' }) == 'grape'",
+            "    assert $ nameOf (Honeydew { name = 'honeydew' }) == 'honeydew'",
+            "    assert $ nameOf (Kiwi { name = 'kiwi' }) == 'kiwi'",
+            "    assert $ nameOf (Lemon { name = 'lemon' }) == 'lemon'",
+            "    assert $ nameOf (Apple { name = 'again' }) == 'again'",
+            "}"
+        );
+    }
+
     @Test
     public void shouldCreateStringSymbol() {
         run("main = () -> assert $ :'waffles' == :waffles");
@@ -0,0 +1,233 @@
+package snacks.lang.runtime;
+
+import static java.util.Collections.frequency;
+import static java.util.Collections.singleton;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.Types.integerType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import snacks.lang.Snack;
+import snacks.lang.SnackKind;
+import snacks.lang.SnackType;
+import snacks.lang.Type;
+
+public class SnacksClassLoaderTest {
+
+    private static final int THREADS = 8;
+    private static final int STRESS_ITERATIONS = 200;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private CountingLoader loader;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        File module = new File(folder.newFolder("example"), "concurrent.snack");
+        Files.write(module.toPath(), (
+            "answer = 6 * 7\n"
+                + "double = (x) -> x * 2\n"
+        ).getBytes("UTF-8"));
+        loader = new CountingLoader(folder.getRoot());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldCompileModuleOnceWhenResolvedConcurrently() throws Exception {
+        List<Class<?>> classes = resolveConcurrently("example.concurrent.answer", SnackKind.EXPRESSION);
+        assertThat(frequency(loader.compilations, "example.concurrent"), equalTo(1));
+        for (Class<?> clazz : classes) {
+            assertThat(clazz, sameInstance((Object) classes.get(0)));
+        }
+    }
+
+    @Test
+    public void shouldResolveDifferentSnacksConcurrently() throws Exception {
+        List<Future<Class<?>>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(resolve(start, i % 2 == 0 ? "example.concurrent.answer" : "example.concurrent.double", SnackKind.EXPRESSION)));
+        }
+        start.countDown();
+        for (Future<Class<?>> future : futures) {
+            assertThat(future.get(), notNullValue());
+        }
+        assertThat(frequency(loader.compilations, "example.concurrent"), equalTo(1));
+    }
+
+    @Test
+    public void shouldForgetMissingSnacksWhenSourcesAreAdded() throws IOException {
+        File module = new File(folder.newFolder("added", "example"), "later.snack");
+        Files.write(module.toPath(), "answer = 42\n".getBytes("UTF-8"));
+        assertThat(loader.classOf("example.later.answer", SnackKind.EXPRESSION), nullValue());
+        loader.add(module.getParentFile().getParentFile());
+        assertThat(loader.classOf("example.later.answer", SnackKind.EXPRESSION), notNullValue());
+    }
+
+    @Test(timeout = 60000)
+    public void shouldResolveModulesThatImportEachOtherConcurrently() throws Exception {
+        write("example/a.snack", "import example.b._\nimport example.c._\nfromA = fromC + 1\n");
+        write("example/b.snack", "import example.a._\nimport example.d._\nfromB = fromD + 1\n");
+        write("example/c.snack", "fromC = 1\n");
+        write("example/d.snack", "fromD = 2\n");
+        for (int i = 0; i < STRESS_ITERATIONS; i++) {
+            CountingLoader cyclicLoader = new CountingLoader(folder.getRoot());
+            List<Future<Class<?>>> futures = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            for (int j = 0; j < THREADS; j++) {
+                String qualifiedName = (i + j) % 2 == 0 ? "example.a.fromA" : "example.b.fromB";
+                futures.add(executor.submit(resolve(cyclicLoader, start, qualifiedName, SnackKind.EXPRESSION)));
+            }
+            start.countDown();
+            for (Future<Class<?>> future : futures) {
+                assertThat(future.get(), notNullValue());
+            }
+            assertThat(valueOf(cyclicLoader, "example.a.fromA"), equalTo((Object) 2));
+            assertThat(valueOf(cyclicLoader, "example.b.fromB"), equalTo((Object) 3));
+        }
+    }
+
+    @Test
+    public void shouldResolveImportedModulesOnCacheHit() throws Exception {
+        CompilationCache cache = new CompilationCache(folder.newFolder("cache"), "1");
+        byte[] source = writeImportingModules("answer = 41");
+        assertThat(valueOf(new CountingLoader(folder.getRoot(), cache), "example.app.total"), equalTo((Object) 42));
+        CountingLoader warmLoader = new CountingLoader(folder.getRoot(), cache);
+        assertThat(valueOf(warmLoader, "example.app.total"), equalTo((Object) 42));
+        assertThat(warmLoader.compilations, empty());
+        assertThat(cache.get("example.app", source).getSnacks(), equalTo(singleton("example.app.total#EXPRESSION")));
+    }
+
+    @Test
+    public void shouldRecompileCachedModuleWhenImportedModuleChanges() throws Exception {
+        CompilationCache cache = new CompilationCache(folder.newFolder("cache"), "1");
+        writeImportingModules("answer = 41");
+        assertThat(valueOf(new CountingLoader(folder.getRoot(), cache), "example.app.total"), equalTo((Object) 42));
+        write("example/numbers.snack", "answer = (x) -> x - 1\n");
+        write("example/app.snack", "import example.numbers._\ntotal = answer 2\n");
+        CountingLoader warmLoader = new CountingLoader(folder.getRoot(), cache);
+        assertThat(valueOf(warmLoader, "example.app.total"), equalTo((Object) 1));
+        assertThat(warmLoader.compilations, containsInAnyOrder("example.numbers", "example.app"));
+    }
+
+    @Test
+    public void shouldReifyTypesOnFirstUse() throws ClassNotFoundException {
+        Counted.reifications.set(0);
+        loader.loadClass(Counted.class.getName());
+        assertThat(Counted.reifications.get(), equalTo(0));
+        assertThat(loader.typeOf("snacks.lang.runtime.counted", SnackKind.EXPRESSION), equalTo(integerType()));
+        assertThat(loader.typeOf("snacks.lang.runtime.counted", SnackKind.EXPRESSION), equalTo(integerType()));
+        assertThat(Counted.reifications.get(), equalTo(1));
+    }
+
+    private Object valueOf(SnacksClassLoader loader, String name) throws ReflectiveOperationException {
+        return loader.classOf(name, SnackKind.EXPRESSION).getMethod("instance").invoke(null);
+    }
+
+    private byte[] write(String path, String source) throws IOException {
+        byte[] bytes = source.getBytes("UTF-8");
+        Files.write(new File(folder.getRoot(), path).toPath(), bytes);
+        return bytes;
+    }
+
+    private byte[] writeImportingModules(String numbers) throws IOException {
+        write("example/numbers.snack", numbers + "\n");
+        return write("example/app.snack", "import example.numbers._\ntotal = answer + 1\n");
+    }
+
+    private Callable<Class<?>> resolve(CountDownLatch start, String qualifiedName, SnackKind kind) {
+        return resolve(loader, start, qualifiedName, kind);
+    }
+
+    private Callable<Class<?>> resolve(final SnacksClassLoader target, final CountDownLatch start, final String qualifiedName, final SnackKind kind) {
+        return new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+                start.await();
+                return target.classOf(qualifiedName, kind);
+            }
+        };
+    }
+
+    private List<Class<?>> resolveConcurrently(String qualifiedName, SnackKind kind) throws Exception {
+        List<Future<Class<?>>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(resolve(start, qualifiedName, kind)));
+        }
+        start.countDown();
+        List<Class<?>> classes = new ArrayList<>();
+        for (Future<Class<?>> future : futures) {
+            classes.add(future.get());
+        }
+        return classes;
+    }
+
+    @Snack(name = "counted", kind = SnackKind.EXPRESSION)
+    public static final class Counted {
+
+        private static final AtomicInteger reifications = new AtomicInteger();
+
+        @SnackType
+        public static Type type() {
+            reifications.incrementAndGet();
+            return integerType();
+        }
+    }
+
+    private static final class CountingLoader extends SnacksClassLoader {
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final List<String> compilations = new CopyOnWriteArrayList<>();
+
+        public CountingLoader(File root) throws MalformedURLException {
+            this(root, null);
+        }
+
+        public CountingLoader(File root, CompilationCache cache) throws MalformedURLException {
+            super(CountingLoader.class.getClassLoader(), cache);
+            add(root);
+        }
+
+        public void add(File root) throws MalformedURLException {
+            addURL(root.toURI().toURL());
+        }
+
+        @Override
+        protected void moduleCompiled(String module, byte[] source, CompilationCache.Entry entry) {
+            compilations.add(module);
+            super.moduleCompiled(module, source, entry);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package snacks.lang.runtime;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static snacks.lang.SnackKind.EXPRESSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnacksReloaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private File sourceRoot;
+    private CountingCache cache;
+    private SnacksReloader reloader;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceRoot = folder.newFolder("src");
+        write("example/numbers.snack", "answer = 1");
+        write("example/app.snack", "import example.numbers._", "total = answer + 1");
+        write("example/other.snack", "greeting = 'hello'");
+        cache = new CountingCache(folder.newFolder("cache"));
+        reloader = new SnacksReloader(getClass().getClassLoader(), cache, asList(sourceRoot));
+    }
+
+    @After
+    public void tearDown() {
+        reloader.close();
+    }
+
+    @Test
+    public void shouldKeepGenerationWhenSourcesAreUnchanged() {
+        SnacksClassLoader loader = reloader.getLoader();
+        assertThat(valueOf(loader, "example.numbers.answer"), equalTo((Object) 1));
+        assertThat(reloader.reload().isEmpty(), equalTo(true));
+        assertThat(reloader.getLoader(), sameInstance(loader));
+    }
+
+    @Test
+    public void shouldLoadChangedModuleInNewGeneration() throws IOException {
+        SnacksClassLoader loader = reloader.getLoader();
+        assertThat(valueOf(loader, "example.numbers.answer"), equalTo((Object) 1));
+        write("example/numbers.snack", "answer = 41");
+        reloader.reload();
+        assertThat(valueOf(reloader.getLoader(), "example.numbers.answer"), equalTo((Object) 41));
+        assertThat(valueOf(loader, "example.numbers.answer"), equalTo((Object) 1));
+    }
+
+    @Test
+    public void shouldRecompileDependentsOfChangedModule() throws IOException {
+        assertThat(valueOf(reloader.getLoader(), "example.app.total"), equalTo((Object) 2));
+        write("example/numbers.snack", "answer = 41");
+        assertThat(reloader.reload(), containsInAnyOrder("example.numbers", "example.app"));
+        assertThat(valueOf(reloader.getLoader(), "example.app.total"), equalTo((Object) 42));
+    }
+
+    @Test
+    public void shouldForgetDeletedModules() throws IOException {
+        assertThat(valueOf(reloader.getLoader(), "example.other.greeting"), equalTo((Object) "hello"));
+        Files.delete(new File(sourceRoot, "example/other.snack").toPath());
+        assertThat(reloader.reload(), containsInAnyOrder("example.other"));
+        assertThat(reloader.getLoader().classOf("example.other.greeting", EXPRESSION), nullValue());
+    }
+
+    @Test
+    public void shouldLoadUnchangedModulesFromCacheWhenUnrelatedModuleChanges() throws IOException {
+        assertThat(valueOf(reloader.getLoader(), "example.app.total"), equalTo((Object) 2));
+        cache.stores.clear();
+        write("example/other.snack", "greeting = 'goodbye'");
+        assertThat(reloader.reload(), containsInAnyOrder("example.other"));
+        assertThat(valueOf(reloader.getLoader(), "example.app.total"), equalTo((Object) 2));
+        assertThat(cache.stores, empty());
+        assertThat(valueOf(reloader.getLoader(), "example.other.greeting"), equalTo((Object) "goodbye"));
+        assertThat(cache.stores, contains("example.other"));
+    }
+
+    @Test
+    public void shouldReuseUnchangedModulesWithoutCache() throws IOException {
+        reloader.close();
+        reloader = new SnacksReloader(getClass().getClassLoader(), null, asList(sourceRoot));
+        SnacksReloader.Generation first = (SnacksReloader.Generation) reloader.getLoader();
+        assertThat(valueOf(first, "example.app.total"), equalTo((Object) 2));
+        assertThat(valueOf(first, "example.other.greeting"), equalTo((Object) "hello"));
+        write("example/other.snack", "greeting = 'goodbye'");
+        assertThat(reloader.reload(), containsInAnyOrder("example.other"));
+        SnacksReloader.Generation second = (SnacksReloader.Generation) reloader.getLoader();
+        assertThat(valueOf(second, "example.app.total"), equalTo((Object) 2));
+        assertThat(valueOf(second, "example.other.greeting"), equalTo((Object) "goodbye"));
+        assertThat(second.entryOf("example.app"), sameInstance(first.entryOf("example.app")));
+        assertThat(second.entryOf("example.numbers"), sameInstance(first.entryOf("example.numbers")));
+        assertThat(second.entryOf("example.other"), not(sameInstance(first.entryOf("example.other"))));
+    }
+
+    private Object valueOf(SnacksClassLoader loader, String name) {
+        try {
+            return loader.classOf(name, EXPRESSION).getMethod("instance").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private void write(String path, String... lines) throws IOException {
+        File file = new File(sourceRoot, path);
+        file.getParentFile().mkdirs();
+        long lastModified = file.lastModified();
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            builder.append(line).append('\n');
+        }
+        Files.write(file.toPath(), builder.toString().getBytes("UTF-8"));
+        file.setLastModified(Math.max(file.lastModified(), lastModified + 1000));
+    }
+
+    private static final class CountingCache extends CompilationCache {
+
+        private final List<String> stores = new CopyOnWriteArrayList<>();
+
+        public CountingCache(File directory) {
+            super(directory, "1");
+        }
+
+        @Override
+        public void put(String module, byte[] source, Entry entry) {
+            stores.add(module);
+            super.put(module, source, entry);
+        }
+    }
+}